@@ -1,17 +1,44 @@
 package me.josielcm.jcm;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import lombok.Getter;
 import lombok.Setter;
+import me.josielcm.jcm.formats.Color;
+import me.josielcm.jcm.formats.ParticleTextCreator;
 import me.josielcm.jcm.logger.Log;
 import me.josielcm.jcm.logger.Log.LogLevel;
+import me.josielcm.jcm.metrics.MetricsCommand;
+import me.josielcm.jcm.metrics.MetricsRegistry;
+import me.josielcm.jcm.metrics.OpenMetricsExporter;
+import me.josielcm.jcm.profiler.ProfilerCommand;
+import me.josielcm.jcm.profiler.TickProfiler;
 import me.josielcm.jcm.regions.selector.SelectorManager;
+import me.josielcm.jcm.scheduler.JCoreScheduler;
+import me.josielcm.jcm.shared.SharedRuntime;
+import me.josielcm.jcm.utils.CacheStats;
 import me.josielcm.jcm.utils.Key;
+import me.josielcm.jcm.utils.PreparedMessage;
 
 /**
  * Clase principal de la API que sigue el patrón Singleton.
  * Proporciona acceso centralizado a las funcionalidades de la API.
+ * <p>
+ * Los subsistemas son módulos: solo arrancan, registran listeners o reservan
+ * memoria los que se piden en {@link #init(JavaPlugin, Module...)} o los que
+ * se usan por primera vez, como el selector con {@link #getSelectorManager()}.
+ * 
+ * <pre>
+ * JCoreAPI.init(this, JCoreAPI.Module.METRICS, JCoreAPI.Module.DIAGNOSTICS);
+ * </pre>
  * 
  * @author JosielCM
  */
@@ -23,8 +50,26 @@ public class JCoreAPI {
     @Getter
     private static JavaPlugin plugin;
     
+    private static volatile SelectorManager selectorManager;
+
+    private static volatile JCoreScheduler scheduler;
+
+    /** Módulos arrancados, protegido por el lock de la clase */
+    private static final EnumSet<Module> modules = EnumSet.noneOf(Module.class);
+
+    /**
+     * Registro de métricas de la API, disponible aunque la API no esté inicializada
+     */
     @Getter
-    private static SelectorManager selectorManager;
+    private static final MetricsRegistry metrics = new MetricsRegistry();
+
+    /**
+     * Exportador OpenMetrics del registro, no arranca hasta que se le pide
+     */
+    @Getter
+    private static final OpenMetricsExporter metricsExporter = new OpenMetricsExporter(metrics);
+
+    private static final List<Command> commands = new ArrayList<>();
     
     @Getter
     @Setter
@@ -36,11 +81,26 @@ public class JCoreAPI {
 
     private JCoreAPI() {}
 
+    /**
+     * Subsistemas opcionales de la API
+     */
+    public enum Module {
+        /** Selector de regiones y su listener de interacción, arranca solo al usarlo */
+        SELECTOR,
+        /** Gauges de cachés, logs y partículas en el registro de métricas */
+        METRICS,
+        /** Comandos /jcmetrics y /jcprofiler */
+        DIAGNOSTICS,
+        /** Runtime compartido con los demás plugins que incluyen la API, ver {@link SharedRuntime} */
+        SHARED
+    }
+
     /**
      * Inicializa de la API
      * @param pluginInstance El plugin que está inicializando la API
+     * @param requested Los módulos que arrancan ya; el resto arranca al usarse o con {@link #enable(Module)}
      */
-    public static void init(JavaPlugin pluginInstance) {
+    public static void init(JavaPlugin pluginInstance, Module... requested) {
         
         if (isEnabled()) {
             Log.log(LogLevel.WARNING, "JCoreAPI is already initialized and cannot be initialized again.");
@@ -57,14 +117,138 @@ public class JCoreAPI {
         plugin = pluginInstance;
         
         Key.instanceKeys(plugin);
-        selectorManager = new SelectorManager();
 
         setEnabled(true);
+        for (Module module : requested) {
+            enable(module);
+        }
         Log.onInit(!enabled);
     }
 
+    /**
+     * Arranca un módulo si aún no está arrancado
+     * @param module El módulo
+     * @return true si el módulo está arrancado, false si la API no está inicializada
+     */
+    public static synchronized boolean enable(Module module) {
+        if (!isEnabled()) {
+            Log.log(LogLevel.WARNING, "JCoreAPI must be initialized before enabling the " + module + " module.");
+            return false;
+        }
+        if (!modules.add(module)) {
+            return true;
+        }
+
+        switch (module) {
+            case SELECTOR -> selectorManager = new SelectorManager();
+            case METRICS -> registerMetrics();
+            case DIAGNOSTICS -> registerCommands();
+            case SHARED -> SharedRuntime.bind(plugin);
+        }
+        Log.log(LogLevel.DEBUG, "JCoreAPI module " + module + " enabled");
+        return true;
+    }
+
+    /**
+     * Comprueba si un módulo está arrancado
+     * @param module El módulo
+     * @return true si está arrancado
+     */
+    public static synchronized boolean isEnabled(Module module) {
+        return modules.contains(module);
+    }
+
+    /**
+     * Obtiene el planificador del plugin, creándolo la primera vez
+     * @return El planificador, o null si la API no está inicializada
+     */
+    public static JCoreScheduler getScheduler() {
+        JCoreScheduler current = scheduler;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (JCoreAPI.class) {
+            if (scheduler == null && isEnabled()) {
+                scheduler = new JCoreScheduler(plugin);
+            }
+            return scheduler;
+        }
+    }
+
+    /**
+     * Obtiene el gestor de selectores, arrancando el módulo {@link Module#SELECTOR} la primera vez
+     * @return El gestor, o null si la API no está inicializada
+     */
+    public static SelectorManager getSelectorManager() {
+        SelectorManager manager = selectorManager;
+        if (manager == null && enable(Module.SELECTOR)) {
+            manager = selectorManager;
+        }
+        return manager;
+    }
+
     public static void shutdown() {
+        synchronized (JCoreAPI.class) {
+            if (selectorManager != null) {
+                selectorManager.shutdown();
+                selectorManager = null;
+            }
+            modules.clear();
+            if (scheduler != null) {
+                scheduler.shutdown();
+                scheduler = null;
+            }
+        }
+        TickProfiler.stop();
+        unregisterCommands();
+        metricsExporter.stop();
+        SharedRuntime.unbind();
         setEnabled(false);
         Log.onShutdown();
     }
-}
\ No newline at end of file
+
+    /**
+     * Registra los gauges de la API
+     */
+    private static void registerMetrics() {
+        metrics.gauge("log.dropped", Log::getDroppedMessages);
+        metrics.gauge("color.cache.size", () -> {
+            CacheStats stats = Color.getCacheStats();
+            return stats == null ? 0 : stats.size();
+        });
+        metrics.gauge("color.cache.hit_ratio", () -> {
+            CacheStats stats = Color.getCacheStats();
+            return stats == null ? 0 : stats.hitRate();
+        });
+        metrics.gauge("prepared_message.cache.size", () -> PreparedMessage.getSharedStats().size());
+        metrics.gauge("particles.texts.active", () -> ParticleTextCreator.getTexts().size());
+    }
+
+    /**
+     * Registra los comandos de diagnóstico /jcmetrics y /jcprofiler
+     */
+    private static void registerCommands() {
+        CommandMap commandMap = Bukkit.getCommandMap();
+        String prefix = plugin.getName().toLowerCase(Locale.ROOT);
+
+        commands.add(new MetricsCommand(metrics));
+        commands.add(new ProfilerCommand());
+        for (Command command : commands) {
+            commandMap.register(prefix, command);
+        }
+    }
+
+    private static void unregisterCommands() {
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        CommandMap commandMap = Bukkit.getCommandMap();
+        for (Command command : commands) {
+            command.unregister(commandMap);
+        }
+        commandMap.getKnownCommands().values().removeIf(commands::contains);
+        commands.clear();
+    }
+}
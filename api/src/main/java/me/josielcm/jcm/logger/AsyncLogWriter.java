@@ -0,0 +1,272 @@
+package me.josielcm.jcm.logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.bukkit.Bukkit;
+
+import me.josielcm.jcm.formats.Color;
+import me.josielcm.jcm.logger.Log.LogLevel;
+import me.josielcm.jcm.logger.Log.OverflowPolicy;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+
+/**
+ * Drains log entries from a {@link LogRingBuffer} on a dedicated thread.
+ * <p>
+ * Lines are queued as MiniMessage strings and parsed on the log thread. Each
+ * pass takes up to {@link #BATCH_SIZE} entries and writes them to the console
+ * as a single newline-joined message, so a stack trace costs one console
+ * write instead of one per frame. Entries meant for the file sink are written
+ * as plain text and flushed once per pass. File sinks that were replaced are
+ * closed between passes, so a pass never writes to a closed sink.
+ */
+final class AsyncLogWriter implements Runnable {
+
+    static final int CAPACITY = 8192;
+    static final int BATCH_SIZE = 128;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SUMMARY_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogRingBuffer<LogEntry> buffer = new LogRingBuffer<>(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalDropped = new AtomicLong();
+    private final Queue<FileLogSink> retired = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    private volatile OverflowPolicy policy;
+    private volatile boolean running = true;
+    private volatile boolean parked;
+    private volatile long written;
+
+    AsyncLogWriter(OverflowPolicy policy) {
+        this.policy = policy;
+        this.thread = new Thread(this, "JCoreAPI Log Thread");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an entry, applying the overflow policy when the buffer is full.
+     *
+     * @param entry The entry
+     * @return false if the entry was dropped
+     */
+    boolean submit(LogEntry entry) {
+        if (buffer.offer(entry)) {
+            wake();
+            return true;
+        }
+
+        // The log thread itself must never wait for its own buffer
+        if (policy == OverflowPolicy.BLOCK && Thread.currentThread() != thread) {
+            while (running) {
+                wake();
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                if (buffer.offer(entry)) {
+                    wake();
+                    return true;
+                }
+            }
+        }
+
+        dropped.incrementAndGet();
+        totalDropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Waits until every line queued before this call has been written.
+     *
+     * @param timeoutMillis The maximum time to wait
+     * @return true if everything was written in time
+     */
+    boolean flush(long timeoutMillis) {
+        if (Thread.currentThread() == thread) {
+            return false;
+        }
+
+        long target = buffer.published();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        while (written < target) {
+            if (!thread.isAlive() || System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            wake();
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Writes everything still queued and stops the log thread.
+     *
+     * @param timeoutMillis The maximum time to wait for pending lines
+     */
+    void close(long timeoutMillis) {
+        flush(timeoutMillis);
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A sink retired while the thread was stopping
+        closeRetired();
+    }
+
+    /**
+     * Hands a replaced file sink to the log thread, which closes it after
+     * the pass in progress.
+     *
+     * @param sink The sink, no longer returned by {@link Log#fileSink()}
+     * @return false if the log thread is stopping and the caller must close it
+     */
+    boolean retire(FileLogSink sink) {
+        if (!running) {
+            return false;
+        }
+        retired.add(sink);
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void setPolicy(OverflowPolicy policy) {
+        this.policy = policy;
+    }
+
+    long getDropped() {
+        return totalDropped.get();
+    }
+
+    @Override
+    public void run() {
+        List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        long lastSummary = System.nanoTime();
+
+        while (running || !buffer.isEmpty()) {
+            long now = System.nanoTime();
+            if (now - lastSummary >= SUMMARY_CHECK_NANOS) {
+                lastSummary = now;
+                summarizeErrors();
+            }
+            closeRetired();
+
+            LogEntry entry;
+            while (batch.size() < BATCH_SIZE && (entry = buffer.poll()) != null) {
+                batch.add(entry);
+            }
+
+            if (batch.isEmpty()) {
+                idle();
+                continue;
+            }
+
+            write(batch);
+            written += batch.size();
+            batch.clear();
+        }
+        closeRetired();
+    }
+
+    private void closeRetired() {
+        FileLogSink sink;
+        while ((sink = retired.poll()) != null) {
+            sink.close();
+        }
+    }
+
+    private static void summarizeErrors() {
+        try {
+            Log.summarizeErrors(false);
+        } catch (Throwable t) {
+            System.err.println("[JCoreAPI] Failed to summarize errors: " + t);
+        }
+    }
+
+    private void idle() {
+        if (!buffer.isEmpty()) {
+            // A producer claimed a slot but has not published it yet
+            Thread.onSpinWait();
+            return;
+        }
+
+        parked = true;
+        if (buffer.isEmpty() && running) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        parked = false;
+    }
+
+    private void write(List<LogEntry> batch) {
+        FileLogSink sink = Log.fileSink();
+
+        try {
+            List<Component> lines = new ArrayList<>(batch.size() + 1);
+
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                String warning = "Dropped " + lost + " log messages, the log buffer was full.";
+                write(LogEntry.message(LogLevel.WARNING.getPrefixComponent(), warning), sink, lines);
+            }
+
+            for (LogEntry entry : batch) {
+                write(entry, sink, lines);
+            }
+
+            if (!lines.isEmpty()) {
+                Bukkit.getConsoleSender().sendMessage(Component.join(JoinConfiguration.newlines(), lines));
+            }
+            if (sink != null) {
+                sink.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("[JCoreAPI] Failed to write log file, disabling the file sink: " + e);
+            Log.detachFileSink(sink);
+        } catch (Throwable t) {
+            // Never let a bad line kill the log thread
+            System.err.println("[JCoreAPI] Failed to write log batch: " + t);
+        }
+    }
+
+    private static void write(LogEntry entry, FileLogSink sink, List<Component> lines) throws IOException {
+        boolean toFile = sink != null && entry.has(LogEntry.FILE);
+        if (!entry.has(LogEntry.CONSOLE) && !toFile) {
+            return;
+        }
+
+        if (toFile && entry.has(LogEntry.PLAIN) && entry.prefix() == null) {
+            sink.append(entry.time(), entry.text());
+            toFile = false;
+        }
+
+        Component component = entry.render();
+        if (entry.has(LogEntry.CONSOLE)) {
+            lines.add(component);
+        }
+        if (toFile) {
+            sink.append(entry.time(), Color.stripFormatting(component));
+        }
+    }
+
+    private void wake() {
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package me.josielcm.jcm.logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Deduplicates repeated errors.
+ * <p>
+ * Errors are fingerprinted by exception class and the top stack frames (or
+ * by message when there is no exception). The first occurrence of a
+ * fingerprint is logged in full; repeats only bump a counter, and once per
+ * window the log thread turns the counters into one summary line per error.
+ * A fingerprint quiet for ten windows is forgotten, so it is printed in full
+ * again the next time.
+ * <p>
+ * Recording an error never takes a lock: counters and window starts are
+ * atomics, and the map only locks a bin the first time a fingerprint is seen.
+ */
+final class ErrorThrottle {
+
+    /** Number of stack frames that make up a fingerprint */
+    private static final int TOP_FRAMES = 5;
+
+    /** Fingerprints tracked at most, errors beyond it are always logged */
+    private static final int MAX_TRACKED = 1024;
+
+    /** Windows without repeats after which a fingerprint is forgotten */
+    private static final int EXPIRY_WINDOWS = 10;
+
+    private final Map<Long, Tracked> tracked = new ConcurrentHashMap<>();
+    private volatile long windowMillis;
+
+    ErrorThrottle(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Records an occurrence of an error.
+     *
+     * @param message The log message
+     * @param error The exception, may be null
+     * @return true if the error must be logged in full
+     */
+    boolean record(String message, Throwable error) {
+        if (windowMillis <= 0) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        Long key = fingerprint(message, error);
+        Tracked entry = tracked.get(key);
+
+        if (entry == null) {
+            if (tracked.size() >= MAX_TRACKED) {
+                return true;
+            }
+            Tracked created = new Tracked(describe(message, error), now);
+            entry = tracked.putIfAbsent(key, created);
+            if (entry == null) {
+                return true;
+            }
+        }
+
+        entry.lastSeen = now;
+        entry.suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Emits a summary for every error whose window is over and that repeated
+     * during it.
+     *
+     * @param force Whether to summarize every error now, regardless of its window
+     * @param out Receives the summary lines
+     */
+    void summarize(boolean force, Consumer<String> out) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis;
+
+        for (Map.Entry<Long, Tracked> mapEntry : tracked.entrySet()) {
+            Tracked entry = mapEntry.getValue();
+            long start = entry.windowStart.get();
+            long elapsed = now - start;
+
+            if ((!force && elapsed < window) || !entry.windowStart.compareAndSet(start, now)) {
+                continue;
+            }
+
+            long repeats = entry.suppressed.getAndSet(0);
+            if (repeats > 0) {
+                out.accept(entry.description + " x" + repeats + " in last " + Math.max(1, elapsed / 1000) + "s");
+            } else if (now - entry.lastSeen > window * EXPIRY_WINDOWS) {
+                tracked.remove(mapEntry.getKey(), entry);
+            }
+        }
+    }
+
+    long getWindowMillis() {
+        return windowMillis;
+    }
+
+    void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+        if (windowMillis <= 0) {
+            tracked.clear();
+        }
+    }
+
+    private static long fingerprint(String message, Throwable error) {
+        if (error == null) {
+            return 0x51AFD7ED558CCD1L ^ (message == null ? 0 : message.hashCode());
+        }
+
+        long hash = error.getClass().getName().hashCode();
+        StackTraceElement[] frames = error.getStackTrace();
+        for (int i = 0; i < Math.min(TOP_FRAMES, frames.length); i++) {
+            hash = hash * 0x9E3779B97F4A7C15L + frames[i].hashCode();
+        }
+        return hash;
+    }
+
+    private static String describe(String message, Throwable error) {
+        if (error == null) {
+            return message;
+        }
+        return message + " (" + error.getClass().getName() + ")";
+    }
+
+    private static final class Tracked {
+        private final String description;
+        private final AtomicLong suppressed = new AtomicLong();
+        private final AtomicLong windowStart;
+        private volatile long lastSeen;
+
+        Tracked(String description, long now) {
+            this.description = description;
+            this.windowStart = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package me.josielcm.jcm.logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends plain log lines to a file, rotating it by size and by date.
+ * <p>
+ * Lines are encoded into a reusable direct buffer and written to a
+ * {@link FileChannel} once per batch, so a stack trace is a single write.
+ * The active file is {@code <name>.log}; when it grows past the size limit
+ * or the day changes it is renamed to {@code <name>-<date>-<n>.log} and
+ * gzipped on a background thread.
+ * <p>
+ * A sink is only used from the log thread, it is not thread-safe. A sink
+ * replaced through {@link Log#enableFileSink(FileLogSink)} is closed on the
+ * log thread too, once the batch using it is written.
+ *
+ * <pre>
+ * Log.enableFileSink(new FileLogSink(plugin.getDataFolder().toPath().resolve("logs"), "jcoreapi", 10 * 1024 * 1024));
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class FileLogSink {
+
+    /** Default size limit of the active file */
+    public static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private final Path directory;
+    private final String name;
+    private final long maxFileSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(256);
+    private final ExecutorService compressor;
+
+    private FileChannel channel;
+    private long size;
+    private LocalDate day;
+
+    private long stampSecond = Long.MIN_VALUE;
+    private String stamp;
+
+    /**
+     * Opens a sink, creating the directory if needed. A leftover active file
+     * from an earlier day is rotated right away.
+     *
+     * @param directory The directory for the log files
+     * @param name The base file name, without extension
+     * @param maxFileSize The size in bytes after which the file is rotated
+     * @throws IOException If the directory or file cannot be opened
+     */
+    public FileLogSink(Path directory, String name, long maxFileSize) throws IOException {
+        if (maxFileSize <= 0) {
+            throw new IllegalArgumentException("Max file size must be positive");
+        }
+
+        this.directory = directory;
+        this.name = name;
+        this.maxFileSize = maxFileSize;
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JCoreAPI Log Compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Files.createDirectories(directory);
+
+        Path active = getActiveFile();
+        LocalDate today = LocalDate.now(zone);
+        if (Files.exists(active) && Files.size(active) > 0) {
+            LocalDate modified = LocalDate.ofInstant(Files.getLastModifiedTime(active).toInstant(), zone);
+            if (!modified.equals(today)) {
+                archive(active, modified);
+            }
+        }
+
+        open(today);
+    }
+
+    /**
+     * Opens a sink with the default size limit.
+     *
+     * @param directory The directory for the log files
+     * @param name The base file name, without extension
+     * @throws IOException If the directory or file cannot be opened
+     */
+    public FileLogSink(Path directory, String name) throws IOException {
+        this(directory, name, DEFAULT_MAX_FILE_SIZE);
+    }
+
+    /**
+     * Gets the file currently written to.
+     *
+     * @return The active log file
+     */
+    public Path getActiveFile() {
+        return directory.resolve(name + ".log");
+    }
+
+    /**
+     * Appends a line to the buffer, rotating first if the line would not fit
+     * the current file or the day changed. Call {@link #flush()} to write it.
+     *
+     * @param time When the line was logged, in epoch milliseconds
+     * @param text The plain text of the line
+     * @throws IOException If the file cannot be written or rotated
+     */
+    void append(long time, String text) throws IOException {
+        line.setLength(0);
+        appendStamp(time);
+        line.append(text).append(System.lineSeparator());
+
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(time), zone);
+        long pending = buffer.position();
+        // UTF-8 takes at most 3 bytes per char, so the line never pushes the file past the limit
+        if (!today.equals(day) || (size + pending + line.length() * 3L > maxFileSize && size + pending > 0)) {
+            rotate(today);
+        }
+
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+                continue;
+            }
+            break;
+        }
+        encoder.reset();
+    }
+
+    /**
+     * Writes every buffered line to the file.
+     *
+     * @throws IOException If the file cannot be written
+     */
+    void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Writes the buffered lines, closes the file and waits briefly for
+     * pending compressions.
+     */
+    void close() {
+        try {
+            drain();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[JCoreAPI] Failed to close log file: " + e);
+        }
+
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void appendStamp(long time) {
+        long second = Math.floorDiv(time, 1000);
+        if (second != stampSecond) {
+            stampSecond = second;
+            stamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(STAMP);
+        }
+
+        int millis = (int) Math.floorMod(time, 1000L);
+        line.append('[').append(stamp).append('.');
+        if (millis < 100) {
+            line.append('0');
+        }
+        if (millis < 10) {
+            line.append('0');
+        }
+        line.append(millis).append("] ");
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            size += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void open(LocalDate today) throws IOException {
+        Path active = getActiveFile();
+        channel = FileChannel.open(active, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        day = today;
+    }
+
+    private void rotate(LocalDate today) throws IOException {
+        drain();
+        channel.close();
+
+        if (size > 0) {
+            archive(getActiveFile(), day);
+        }
+        open(today);
+    }
+
+    /**
+     * Renames a finished file out of the way and compresses it in the background.
+     */
+    private void archive(Path file, LocalDate date) throws IOException {
+        String prefix = name + "-" + date.format(DATE) + "-";
+        int index = 1;
+        Path target;
+        while (Files.exists(target = directory.resolve(prefix + index + ".log"))
+                || Files.exists(directory.resolve(prefix + index + ".log.gz"))) {
+            index++;
+        }
+
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        Path rotated = target;
+        compressor.execute(() -> compress(rotated));
+    }
+
+    private static void compress(Path file) {
+        Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(file);
+                OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_SIZE)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("[JCoreAPI] Failed to compress " + file + ": " + e);
+            return;
+        }
+
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println("[JCoreAPI] Failed to delete " + file + " after compressing it: " + e);
+        }
+    }
+}
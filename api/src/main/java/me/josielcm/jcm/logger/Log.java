@@ -1,23 +1,64 @@
 package me.josielcm.jcm.logger;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.bukkit.Bukkit;
 
 import lombok.Getter;
-import me.josielcm.jcm.JCoreAPI;
-import me.josielcm.jcm.formats.Color;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 
 public class Log {
 
+    /** How long shutdown waits for queued lines to be written */
+    private static final long SHUTDOWN_FLUSH_MILLIS = 5000;
+
+    private static final Object WRITER_LOCK = new Object();
+    private static volatile AsyncLogWriter writer;
+    private static volatile boolean closed = false;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private static volatile FileLogSink fileSink;
+
+    private static volatile LogLevel minimumLevel = LogLevel.INFO;
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final Logger ROOT = new Logger(null);
+
+    /** Repeats of an error already logged are summarized once per window */
+    private static final ErrorThrottle ERRORS = new ErrorThrottle(Duration.ofSeconds(60).toMillis());
+
+    /**
+     * What happens to a message logged while the log buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the message, a warning with the number of dropped messages is logged later */
+        DROP,
+        /** Wait on the calling thread until there is room */
+        BLOCK
+    }
+
+    /** 50 dashes, a constant so LogLevel can use it while Log is still initializing */
+    private static final String SEPARATOR = "--------------------------------------------------";
+    private static final Component CHECK_CONSOLE = MiniMessage.miniMessage()
+            .deserialize("<grey>Check the console for more details.");
+
     public enum LogLevel {
-        INFO("<gold>INFO: </gold>", "<gold>"),
-        WARNING("<yellow>WARNING: </yellow>", "<yellow>"),
-        ERROR("<red>ERROR: </red>", "<red>"),
-        DEBUG("<aqua>DEBUG: </aqua>", "<aqua>"),
-        FATAL("<dark_red>FATAL: </dark_red>", "<dark_red>"),
-        SUCCESS("<green>SUCCESS: </green>", "<green>"),;
+        INFO("<gold>INFO: </gold>", "<gold>", 1),
+        WARNING("<yellow>WARNING: </yellow>", "<yellow>", 2),
+        ERROR("<red>ERROR: </red>", "<red>", 3),
+        DEBUG("<aqua>DEBUG: </aqua>", "<aqua>", 0),
+        FATAL("<dark_red>FATAL: </dark_red>", "<dark_red>", 4),
+        SUCCESS("<green>SUCCESS: </green>", "<green>", 1),;
 
         @Getter
         private String prefix;
@@ -25,13 +66,48 @@ public class Log {
         @Getter
         private String color;
 
-        LogLevel(String prefix, String color) {
+        /** Higher is more severe, levels below the minimum level are filtered */
+        @Getter
+        private int severity;
+
+        /** The prefix, parsed once */
+        @Getter
+        private Component prefixComponent;
+
+        /** The separator line of headers and footers, parsed once */
+        @Getter
+        private Component separatorComponent;
+
+        private Style style;
+
+        LogLevel(String prefix, String color, int severity) {
             this.prefix = prefix;
             this.color = color;
+            this.severity = severity;
+            // MiniMessage directly: Color pulls in the shared runtime, metrics and
+            // profiler, which log themselves and would need LogLevel initialized
+            this.prefixComponent = MiniMessage.miniMessage().deserialize(prefix);
+
+            // Level colors are plain named color tags such as "<gold>"
+            NamedTextColor named = NamedTextColor.NAMES.value(color.substring(1, color.length() - 1));
+            this.style = named != null ? Style.style(named) : Style.empty();
+            this.separatorComponent = Component.text(SEPARATOR, style);
+        }
+
+        /**
+         * Builds a header title line in the color of this level.
+         * 
+         * @param title The plain title
+         * @return The title line
+         */
+        public Component header(String title) {
+            return Component.text(" " + title, style);
         }
     }
 
     public static void onInit(boolean errorLoading) {
+        closed = false;
+
         if (errorLoading) {
             logHeader(LogLevel.ERROR, "JCoreAPI - Error");
             log(LogLevel.ERROR, "JCoreAPI failed to load.");
@@ -44,20 +120,248 @@ public class Log {
     }
 
     public static void onShutdown() {
+        summarizeErrors(true);
         logHeader(LogLevel.INFO, "JCoreAPI - API");
         log(LogLevel.INFO, "API shutdown successfully.");
         logFooter(LogLevel.INFO);
+
+        // Write everything still queued, later messages are written synchronously
+        synchronized (WRITER_LOCK) {
+            closed = true;
+            if (writer != null) {
+                writer.close(SHUTDOWN_FLUSH_MILLIS);
+                writer = null;
+            }
+        }
+        disableFileSink();
     }
     
     public static void log(LogLevel level, String message)  {
-        JCoreAPI.getPlugin().getServer().getConsoleSender().sendMessage(Color.parse(level.getPrefix() + message));
+        ROOT.log(level, message);
     }
 
     public static void log(String message) {
-        JCoreAPI.getPlugin().getServer().getConsoleSender().sendMessage(Color.parse(LogLevel.INFO.getPrefix() + message));
+        ROOT.log(LogLevel.INFO, message);
+    }
+
+    /**
+     * Logs a message built only if the level passes the filter.
+     * 
+     * @param level The level
+     * @param message Supplier of the message
+     */
+    public static void log(LogLevel level, Supplier<String> message) {
+        ROOT.log(level, message);
+    }
+
+    /**
+     * Logs a message replacing each {} in the pattern with the next argument,
+     * formatted only if the level passes the filter.
+     * 
+     * @param level The level
+     * @param pattern The message pattern
+     * @param arg The argument
+     */
+    public static void log(LogLevel level, String pattern, Object arg) {
+        ROOT.log(level, pattern, arg);
+    }
+
+    public static void log(LogLevel level, String pattern, Object arg1, Object arg2) {
+        ROOT.log(level, pattern, arg1, arg2);
+    }
+
+    public static void log(LogLevel level, String pattern, Object... args) {
+        ROOT.log(level, pattern, args);
+    }
+
+    /**
+     * Gets the logger with the given name, creating it on first use.
+     * Its messages are tagged with the name.
+     * 
+     * @param name The logger name
+     * @return The logger
+     */
+    public static Logger of(String name) {
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    /**
+     * Gets the minimum level of the root logger, also used by every logger
+     * without a minimum level of its own.
+     * 
+     * @return The minimum level
+     */
+    public static LogLevel getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    public static void setMinimumLevel(LogLevel level) {
+        minimumLevel = level;
+    }
+
+    public static boolean isLoggable(LogLevel level) {
+        return ROOT.isLoggable(level);
+    }
+
+    /**
+     * Sets what happens to messages logged while the log buffer is full.
+     * 
+     * @param policy The overflow policy
+     */
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy;
+        AsyncLogWriter current = writer;
+        if (current != null) {
+            current.setPolicy(policy);
+        }
+    }
+
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Gets the number of messages dropped because the log buffer was full.
+     * 
+     * @return The number of dropped messages
+     */
+    public static long getDroppedMessages() {
+        AsyncLogWriter current = writer;
+        return current != null ? current.getDropped() : 0;
+    }
+
+    /**
+     * Waits until every message logged so far has been written to the console.
+     * 
+     * @param timeoutMillis The maximum time to wait
+     * @return true if everything was written in time
+     */
+    public static boolean flush(long timeoutMillis) {
+        AsyncLogWriter current = writer;
+        return current == null || current.flush(timeoutMillis);
+    }
+
+    /**
+     * Sets how often repeats of an error are summarized. An error is logged in
+     * full the first time; identical errors (same exception class and top stack
+     * frames) are then only counted and reported as "x1342 in last 60s".
+     * 
+     * @param interval The summary interval, zero to log every error in full
+     */
+    public static void setErrorSummaryInterval(Duration interval) {
+        ERRORS.setWindowMillis(interval.toMillis());
+    }
+
+    public static Duration getErrorSummaryInterval() {
+        return Duration.ofMillis(ERRORS.getWindowMillis());
+    }
+
+    /**
+     * Logs the summaries of repeated errors whose interval is over.
+     * 
+     * @param force Whether to summarize every repeated error now
+     */
+    static void summarizeErrors(boolean force) {
+        ERRORS.summarize(force, line -> log(LogLevel.ERROR, line));
+    }
+
+    /**
+     * Starts writing every message to a file as well, replacing the current sink.
+     * The previous sink is closed by the log thread once it is done with it.
+     * 
+     * @param sink The file sink
+     */
+    public static void enableFileSink(FileLogSink sink) {
+        FileLogSink previous;
+        synchronized (WRITER_LOCK) {
+            previous = fileSink;
+            fileSink = sink;
+            if (previous == sink) {
+                return;
+            }
+            // The log thread may be writing a batch to the old sink, it closes it after that batch
+            if (previous != null && writer != null && writer.retire(previous)) {
+                return;
+            }
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Starts writing every message to {@code jcoreapi.log} in a directory,
+     * rotated at {@link FileLogSink#DEFAULT_MAX_FILE_SIZE} and daily.
+     * 
+     * @param directory The directory for the log files
+     * @throws IOException If the log file cannot be opened
+     */
+    public static void enableFileSink(Path directory) throws IOException {
+        enableFileSink(new FileLogSink(directory, "jcoreapi"));
+    }
+
+    /**
+     * Stops writing messages to a file and closes the current sink.
+     */
+    public static void disableFileSink() {
+        enableFileSink((FileLogSink) null);
+    }
+
+    public static FileLogSink getFileSink() {
+        return fileSink;
+    }
+
+    static FileLogSink fileSink() {
+        return fileSink;
+    }
+
+    /**
+     * Drops a sink that failed, unless it was already replaced.
+     */
+    static void detachFileSink(FileLogSink sink) {
+        synchronized (WRITER_LOCK) {
+            if (fileSink != sink) {
+                return;
+            }
+            fileSink = null;
+        }
+        sink.close();
+    }
+
+    /**
+     * Queues an entry for the log thread, or writes it to the console
+     * directly once the logger is closed.
+     */
+    static void write(LogEntry entry) {
+        AsyncLogWriter current = writer();
+        if (current == null) {
+            if (entry.has(LogEntry.CONSOLE)) {
+                Bukkit.getConsoleSender().sendMessage(entry.render());
+            }
+            return;
+        }
+        current.submit(entry);
+    }
+
+    private static AsyncLogWriter writer() {
+        AsyncLogWriter current = writer;
+        if (current != null || closed) {
+            return current;
+        }
+
+        synchronized (WRITER_LOCK) {
+            if (writer == null && !closed) {
+                writer = new AsyncLogWriter(overflowPolicy);
+            }
+            return writer;
+        }
     }
 
     public static void logError(String message, Exception e) {
+        if (!isLoggable(LogLevel.ERROR) || !ERRORS.record(message, e)) {
+            return;
+        }
+
         DateTimeFormatter formater = DateTimeFormatter.ofPattern("yyy-MM-dd HH:mm:ss");
         String timestamp = LocalDateTime.now().format(formater);
 
@@ -69,27 +373,36 @@ public class Log {
             log(LogLevel.ERROR, "Exception: " + e.getClass().getName());
             log(LogLevel.ERROR, "Cause: " + e.getCause());
             log(LogLevel.ERROR, "Message: " + e.getMessage());
-            log(LogLevel.ERROR, "Stacktrace: ");
-            for (StackTraceElement element : e.getStackTrace()) {
-                log(LogLevel.ERROR, "  at " + element.toString());
+
+            FileLogSink sink = fileSink;
+            if (sink != null) {
+                // Keep the console short, the full trace with its causes goes to the file
+                StringWriter trace = new StringWriter();
+                e.printStackTrace(new PrintWriter(trace));
+                for (String line : trace.toString().split("\\R")) {
+                    write(LogEntry.of(line, LogEntry.FILE | LogEntry.PLAIN));
+                }
+                log(LogLevel.ERROR, "Stacktrace written to " + sink.getActiveFile().getFileName());
+            } else {
+                log(LogLevel.ERROR, "Stacktrace: ");
+                for (StackTraceElement element : e.getStackTrace()) {
+                    log(LogLevel.ERROR, "  at " + element.toString());
+                }
             }
         }
 
-        Bukkit.getConsoleSender().sendMessage(Color.parse("<grey>Check the console for more details."));
+        write(LogEntry.rendered(CHECK_CONSOLE));
     }
 
     private static void logHeader(LogLevel level, String title) {
-        String seperator = "-".repeat(50);
-
-        Bukkit.getConsoleSender().sendMessage(Color.parse(level.getColor() + seperator));
-        Bukkit.getConsoleSender().sendMessage(Color.parse(level.getColor() + " " + title));
-        Bukkit.getConsoleSender().sendMessage(Color.parse(level.getColor() + seperator));
+        write(LogEntry.rendered(level.getSeparatorComponent()));
+        write(LogEntry.rendered(level.header(title)));
+        write(LogEntry.rendered(level.getSeparatorComponent()));
     }
 
     private static void logFooter(LogLevel level) {
-        String seperator = "-".repeat(50);
-        Bukkit.getConsoleSender().sendMessage(Color.parse(level.getColor() + seperator));
-        Bukkit.getConsoleSender().sendMessage(Color.parse(""));
+        write(LogEntry.rendered(level.getSeparatorComponent()));
+        write(LogEntry.rendered(Component.empty()));
     }
 
 }
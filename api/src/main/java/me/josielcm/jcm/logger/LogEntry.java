@@ -0,0 +1,72 @@
+package me.josielcm.jcm.logger;
+
+import me.josielcm.jcm.formats.Color;
+import net.kyori.adventure.text.Component;
+
+/**
+ * A queued log line and where it goes.
+ * <p>
+ * The line is rendered on the log thread: the MiniMessage text is parsed and
+ * appended as a child of the pre-rendered prefix, nothing is concatenated and
+ * parsed again.
+ *
+ * @param time When the line was logged, in epoch milliseconds
+ * @param prefix The pre-rendered prefix, may be null
+ * @param text The MiniMessage text, plain text for {@link #PLAIN} entries, or null
+ * @param component A pre-rendered line used instead of the text, may be null
+ * @param flags Where the line is written and how it is read
+ */
+record LogEntry(long time, Component prefix, String text, Component component, int flags) {
+
+    /** Written to the console */
+    static final int CONSOLE = 1;
+
+    /** Written to the file sink, when one is enabled */
+    static final int FILE = 1 << 1;
+
+    /** The text is plain, it is never parsed as MiniMessage */
+    static final int PLAIN = 1 << 2;
+
+    /** Written everywhere */
+    static final int ALL = CONSOLE | FILE;
+
+    /**
+     * A MiniMessage line shown after a prefix.
+     */
+    static LogEntry message(Component prefix, String text) {
+        return new LogEntry(System.currentTimeMillis(), prefix, text, null, ALL);
+    }
+
+    /**
+     * A MiniMessage line without prefix.
+     */
+    static LogEntry of(String text, int flags) {
+        return new LogEntry(System.currentTimeMillis(), null, text, null, flags);
+    }
+
+    /**
+     * A line that is already rendered.
+     */
+    static LogEntry rendered(Component component) {
+        return new LogEntry(System.currentTimeMillis(), null, null, component, ALL);
+    }
+
+    boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * Builds the component of this line. Called on the log thread.
+     */
+    Component render() {
+        if (component != null) {
+            return component;
+        }
+
+        Component body = has(PLAIN) ? Component.text(text) : Color.parse(text);
+        if (prefix == null) {
+            return body;
+        }
+        return Component.text().append(prefix).append(body).build();
+    }
+}
@@ -0,0 +1,118 @@
+package me.josielcm.jcm.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whether it is free for the
+ * producer at a given position or holds an element for the consumer. Producers
+ * claim a position with one CAS on the tail and publish the element by
+ * advancing the slot sequence; the consumer never writes the tail, so
+ * producers only contend with each other.
+ *
+ * @param <E> The element type
+ */
+final class LogRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Only written by the consumer, volatile so other threads can see progress */
+    private volatile long head;
+
+    /**
+     * @param capacity The capacity, rounded up to a power of two
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room. Safe to call from any thread.
+     *
+     * @param element The element
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the next element. Must only be called by the consumer thread.
+     *
+     * @return The element, or null if none is published yet
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.lazySet(index, position + elements.length);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Checks whether every claimed position has been consumed. An element
+     * being published counts as present.
+     *
+     * @return true if the buffer is empty
+     */
+    boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Gets the number of elements ever added.
+     *
+     * @return The number of claimed positions
+     */
+    long published() {
+        return tail.get();
+    }
+
+    /**
+     * Gets the capacity of the buffer.
+     *
+     * @return The capacity
+     */
+    int capacity() {
+        return elements.length;
+    }
+}
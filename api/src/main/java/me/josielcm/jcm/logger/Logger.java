@@ -0,0 +1,210 @@
+package me.josielcm.jcm.logger;
+
+import java.util.function.Supplier;
+
+import me.josielcm.jcm.JCoreAPI;
+import me.josielcm.jcm.logger.Log.LogLevel;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * A named logger with its own minimum level.
+ * <p>
+ * Every method checks the level before touching the message, so a filtered
+ * call costs a couple of field reads: {@link Supplier} messages are not
+ * invoked, {@code {}} patterns are not formatted and nothing is parsed. The
+ * fixed-arity pattern overloads also avoid the varargs array, which lets
+ * debug logging stay in hot paths.
+ * <p>
+ * {@link LogLevel#DEBUG} messages are also written whenever
+ * {@link JCoreAPI#isDebug()} is on, whatever the minimum level.
+ *
+ * <pre>
+ * private static final Logger LOGGER = Log.of("Regions");
+ *
+ * LOGGER.debug("{} entered {}", player.getName(), region);
+ * LOGGER.debug(() -&gt; "Index rebuilt: " + index.describe());
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class Logger {
+
+    private final String name;
+    private final Component[] prefixes;
+    private volatile LogLevel minimumLevel;
+
+    Logger(String name) {
+        this.name = name;
+
+        // Level prefix followed by the name tag, rendered once per level
+        LogLevel[] levels = LogLevel.values();
+        this.prefixes = new Component[levels.length];
+        Component tag = name == null ? null : Component.text("[" + name + "] ", NamedTextColor.GRAY);
+        for (LogLevel level : levels) {
+            prefixes[level.ordinal()] = tag == null ? level.getPrefixComponent()
+                    : Component.text().append(level.getPrefixComponent()).append(tag).build();
+        }
+    }
+
+    /**
+     * Gets the name of this logger.
+     *
+     * @return The name, or null for the root logger
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the minimum level of this logger.
+     *
+     * @return The minimum level, or null if it follows {@link Log#getMinimumLevel()}
+     */
+    public LogLevel getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    /**
+     * Sets the minimum level of this logger.
+     *
+     * @param level The minimum level, or null to follow {@link Log#getMinimumLevel()}
+     */
+    public void setMinimumLevel(LogLevel level) {
+        this.minimumLevel = level;
+    }
+
+    /**
+     * Checks whether messages of a level are written.
+     *
+     * @param level The level
+     * @return true if the level passes the filter
+     */
+    public boolean isLoggable(LogLevel level) {
+        LogLevel minimum = minimumLevel != null ? minimumLevel : Log.getMinimumLevel();
+        return level.getSeverity() >= minimum.getSeverity() || (level == LogLevel.DEBUG && JCoreAPI.isDebug());
+    }
+
+    public boolean isDebugEnabled() {
+        return isLoggable(LogLevel.DEBUG);
+    }
+
+    public void log(LogLevel level, String message) {
+        if (isLoggable(level)) {
+            write(level, message);
+        }
+    }
+
+    public void log(LogLevel level, Supplier<String> message) {
+        if (isLoggable(level)) {
+            write(level, message.get());
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object arg) {
+        if (isLoggable(level)) {
+            write(level, format(pattern, new Object[] { arg }));
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object arg1, Object arg2) {
+        if (isLoggable(level)) {
+            write(level, format(pattern, new Object[] { arg1, arg2 }));
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object... args) {
+        if (isLoggable(level)) {
+            write(level, format(pattern, args));
+        }
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void debug(String pattern, Object arg) {
+        log(LogLevel.DEBUG, pattern, arg);
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        log(LogLevel.DEBUG, pattern, arg1, arg2);
+    }
+
+    public void debug(String pattern, Object... args) {
+        log(LogLevel.DEBUG, pattern, args);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public void info(String pattern, Object arg) {
+        log(LogLevel.INFO, pattern, arg);
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        log(LogLevel.INFO, pattern, arg1, arg2);
+    }
+
+    public void info(String pattern, Object... args) {
+        log(LogLevel.INFO, pattern, args);
+    }
+
+    public void warning(String message) {
+        log(LogLevel.WARNING, message);
+    }
+
+    public void warning(Supplier<String> message) {
+        log(LogLevel.WARNING, message);
+    }
+
+    public void warning(String pattern, Object arg) {
+        log(LogLevel.WARNING, pattern, arg);
+    }
+
+    public void warning(String pattern, Object arg1, Object arg2) {
+        log(LogLevel.WARNING, pattern, arg1, arg2);
+    }
+
+    public void warning(String pattern, Object... args) {
+        log(LogLevel.WARNING, pattern, args);
+    }
+
+    private void write(LogLevel level, String message) {
+        Log.write(LogEntry.message(prefixes[level.ordinal()], message));
+    }
+
+    /**
+     * Replaces each {@code {}} in the pattern with the next argument. Extra
+     * arguments are ignored and placeholders without an argument are kept.
+     */
+    static String format(String pattern, Object[] args) {
+        if (pattern == null || args == null || args.length == 0) {
+            return pattern;
+        }
+
+        StringBuilder builder = new StringBuilder(pattern.length() + 16 * args.length);
+        int last = 0;
+        int used = 0;
+
+        while (used < args.length) {
+            int index = pattern.indexOf("{}", last);
+            if (index < 0) {
+                break;
+            }
+            builder.append(pattern, last, index).append(args[used++]);
+            last = index + 2;
+        }
+
+        return builder.append(pattern, last, pattern.length()).toString();
+    }
+}
@@ -0,0 +1,55 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count.
+ * <p>
+ * Backed by a {@link LongAdder}, so concurrent increments from many threads
+ * touch different cells instead of fighting over a single value.
+ *
+ * @author JosielCM
+ */
+public final class Counter implements Metric {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount The amount to add, must not be negative
+     */
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Counters cannot decrease");
+        }
+        count.add(amount);
+    }
+
+    /**
+     * Gets the current count.
+     *
+     * @return The sum of every increment since creation or the last reset
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,40 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value sampled when it is read, such as a queue size or a cache size.
+ * <p>
+ * Nothing is recorded on the hot path: the supplier is only called when the
+ * metrics are displayed or exported, so it must be cheap and thread-safe.
+ *
+ * @author JosielCM
+ */
+public final class Gauge implements Metric {
+
+    private final String name;
+    private final DoubleSupplier supplier;
+
+    Gauge(String name, DoubleSupplier supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Samples the current value.
+     *
+     * @return The value, or NaN if the supplier failed
+     */
+    public double get() {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free distribution of non-negative long values, usually latencies in
+ * nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets the way HdrHistogram does it:
+ * every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets,
+ * so any value is reported within about 3% of what was recorded, from
+ * nanoseconds up to {@link Long#MAX_VALUE}, with a fixed array of counters.
+ * Recording is a bit scan and one atomic increment, it never allocates or
+ * takes a lock.
+ *
+ * @author JosielCM
+ */
+public final class Histogram implements Metric {
+
+    /** log2 of the number of linear sub-buckets per power of two */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Number of linear sub-buckets per power of two */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Enough buckets for every non-negative long */
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value The value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(index(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Copies the current counts. Values recorded while the copy is taken may
+     * or may not be part of it.
+     *
+     * @return A snapshot of this histogram
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new HistogramSnapshot(counts, count, sum.sum(), max.get());
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Gets the bucket of a value: values below {@link #SUB_BUCKETS} get their
+     * own bucket, larger ones keep their top {@link #SUB_BUCKET_BITS} + 1 bits.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the highest value counted in a bucket.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        long upper = ((mantissa + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,104 @@
+package me.josielcm.jcm.metrics;
+
+/**
+ * Immutable copy of a {@link Histogram}'s counts.
+ *
+ * @author JosielCM
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The exact sum
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The exact maximum, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the value below which the given percentage of values fall.
+     * <p>
+     * The result is the upper bound of the bucket holding that rank, capped
+     * at the exact maximum, so it never under-reports by more than a bucket.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        double clamped = Math.min(100, Math.max(0, percentile));
+        long rank = Math.max(1, (long) Math.ceil(clamped / 100 * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Histogram.upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of values up to a bound, at bucket precision: the
+     * whole bucket holding the bound is counted.
+     *
+     * @param value The inclusive bound
+     * @return The cumulative count of values up to the bound
+     */
+    public long getCountAtOrBelow(long value) {
+        if (value < 0) {
+            return 0;
+        }
+
+        int last = Histogram.index(value);
+        long seen = 0;
+        for (int i = 0; i <= last; i++) {
+            seen += counts[i];
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,16 @@
+package me.josielcm.jcm.metrics;
+
+/**
+ * A named value tracked by a {@link MetricsRegistry}.
+ *
+ * @author JosielCM
+ */
+public interface Metric {
+
+    /**
+     * Gets the name this metric is registered under.
+     *
+     * @return The dotted metric name, for example {@code color.parse}
+     */
+    String getName();
+}
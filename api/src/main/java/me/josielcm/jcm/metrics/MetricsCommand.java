@@ -0,0 +1,137 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Shows the registered metrics to players and the console.
+ * <p>
+ * {@code /jcmetrics} lists every metric, timers with their count, p50, p99
+ * and max; {@code /jcmetrics <prefix>} only those whose name starts with the
+ * prefix; {@code /jcmetrics reset} clears the recorded values.
+ *
+ * @author JosielCM
+ */
+public final class MetricsCommand extends Command {
+
+    public static final String NAME = "jcmetrics";
+    public static final String PERMISSION = "jcoreapi.metrics";
+
+    private final MetricsRegistry registry;
+
+    public MetricsCommand(MetricsRegistry registry) {
+        super(NAME, "Shows JCoreAPI metrics", "/" + NAME + " [prefix|reset]", List.of());
+        this.registry = registry;
+        setPermission(PERMISSION);
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String label, String[] args) {
+        if (!testPermission(sender)) {
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            registry.reset();
+            sender.sendMessage(Component.text("Metrics reset.", NamedTextColor.GREEN));
+            return true;
+        }
+
+        String prefix = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "";
+        List<Metric> metrics = registry.getMetrics();
+        metrics.removeIf(metric -> !metric.getName().startsWith(prefix));
+
+        if (metrics.isEmpty()) {
+            sender.sendMessage(Component.text("No metrics recorded.", NamedTextColor.GRAY));
+            return true;
+        }
+
+        sender.sendMessage(Component.text("JCoreAPI metrics" + (registry.isEnabled() ? "" : " (timers disabled)"),
+                NamedTextColor.GOLD));
+        for (Metric metric : metrics) {
+            sender.sendMessage(line(metric));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length != 1) {
+            return completions;
+        }
+
+        String typed = args[0].toLowerCase(Locale.ROOT);
+        if ("reset".startsWith(typed)) {
+            completions.add("reset");
+        }
+        for (Metric metric : registry.getMetrics()) {
+            if (metric.getName().startsWith(typed)) {
+                completions.add(metric.getName());
+            }
+        }
+        return completions;
+    }
+
+    private static Component line(Metric metric) {
+        Component name = Component.text(metric.getName() + " ", NamedTextColor.WHITE);
+
+        if (metric instanceof Timer timer) {
+            HistogramSnapshot snapshot = timer.snapshot();
+            return Component.text()
+                    .append(name)
+                    .append(stat("n", Long.toString(snapshot.getCount())))
+                    .append(stat("p50", formatNanos(snapshot.getValueAtPercentile(50))))
+                    .append(stat("p99", formatNanos(snapshot.getValueAtPercentile(99))))
+                    .append(stat("max", formatNanos(snapshot.getMax())))
+                    .build();
+        }
+        if (metric instanceof Histogram histogram) {
+            HistogramSnapshot snapshot = histogram.snapshot();
+            return Component.text()
+                    .append(name)
+                    .append(stat("n", Long.toString(snapshot.getCount())))
+                    .append(stat("p50", Long.toString(snapshot.getValueAtPercentile(50))))
+                    .append(stat("p99", Long.toString(snapshot.getValueAtPercentile(99))))
+                    .append(stat("max", Long.toString(snapshot.getMax())))
+                    .build();
+        }
+        if (metric instanceof Counter counter) {
+            return name.append(stat("count", Long.toString(counter.get())));
+        }
+        if (metric instanceof Gauge gauge) {
+            return name.append(stat("value", String.format(Locale.ROOT, "%.2f", gauge.get())));
+        }
+        return name;
+    }
+
+    private static Component stat(String label, String value) {
+        return Component.text()
+                .append(Component.text(label + "=", NamedTextColor.GRAY))
+                .append(Component.text(value + " ", NamedTextColor.YELLOW))
+                .build();
+    }
+
+    /**
+     * Formats a duration with the largest unit that keeps it above one.
+     */
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
@@ -0,0 +1,231 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+import me.josielcm.jcm.JCoreAPI;
+
+/**
+ * Holds the named counters, gauges, histograms and timers of the API.
+ * <p>
+ * Metrics are created on first use and then reused, so callers keep the
+ * returned instance in a static field and never look it up on the hot path.
+ * Recording into any of them is lock-free. The library instruments its own
+ * hot paths ({@code color.parse}, {@code papi.request},
+ * {@code cuboid.entities}, {@code particles.text}); plugins can add theirs to
+ * the same registry through {@link JCoreAPI#getMetrics()}.
+ * <p>
+ * A metric can carry one label, which becomes part of its name as
+ * {@code family{label="value"}}. Each family and label accepts at most
+ * {@link #getMaxLabelValues()} distinct values; later ones are folded into
+ * {@value #OVERFLOW_LABEL_VALUE} so a label fed from user input cannot grow
+ * the registry without bound.
+ *
+ * @author JosielCM
+ */
+public final class MetricsRegistry {
+
+    /** Label value used once a label has too many distinct values */
+    public static final String OVERFLOW_LABEL_VALUE = "other";
+
+    /** Default number of distinct values per label */
+    public static final int DEFAULT_MAX_LABEL_VALUES = 64;
+
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> labelValues = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+    private volatile int maxLabelValues = DEFAULT_MAX_LABEL_VALUES;
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name The metric name
+     * @return The counter registered under the name
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Counter counter(String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Gets or creates a labeled counter.
+     *
+     * @param family The metric family name
+     * @param label The label name
+     * @param value The label value
+     * @return The counter registered for the label value
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Counter counter(String family, String label, String value) {
+        return counter(labeled(family, label, value));
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     *
+     * @param name The metric name
+     * @param supplier Samples the value, called off the hot path
+     * @return The gauge
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier) {
+        Gauge gauge = new Gauge(name, supplier);
+        Metric current = metrics.compute(name,
+                (key, previous) -> previous == null || previous instanceof Gauge ? gauge : previous);
+        if (current != gauge) {
+            throw new IllegalArgumentException("Metric " + name + " is already a " + kind(current));
+        }
+        return gauge;
+    }
+
+    /**
+     * Gets or creates a histogram.
+     *
+     * @param name The metric name
+     * @return The histogram registered under the name
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Gets or creates a timer.
+     *
+     * @param name The metric name
+     * @return The timer registered under the name
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Timer timer(String name) {
+        return get(name, Timer.class, key -> new Timer(this, key));
+    }
+
+    /**
+     * Gets or creates a labeled timer.
+     *
+     * @param family The metric family name
+     * @param label The label name
+     * @param value The label value
+     * @return The timer registered for the label value
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Timer timer(String family, String label, String value) {
+        return timer(labeled(family, label, value));
+    }
+
+    /**
+     * Removes a metric. Instances already handed out keep working but are no
+     * longer listed.
+     *
+     * @param name The metric name
+     */
+    public void remove(String name) {
+        metrics.remove(name);
+    }
+
+    /**
+     * Gets every registered metric, sorted by name.
+     *
+     * @return A copy of the registered metrics
+     */
+    public List<Metric> getMetrics() {
+        List<Metric> list = new ArrayList<>(metrics.values());
+        list.sort(Comparator.comparing(Metric::getName));
+        return list;
+    }
+
+    /**
+     * Clears the recorded values of every counter, histogram and timer.
+     */
+    public void reset() {
+        for (Metric metric : metrics.values()) {
+            if (metric instanceof Counter counter) {
+                counter.reset();
+            } else if (metric instanceof Histogram histogram) {
+                histogram.reset();
+            } else if (metric instanceof Timer timer) {
+                timer.reset();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns timers on or off. A disabled timer does not read the clock.
+     *
+     * @param enabled Whether timers record
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxLabelValues() {
+        return maxLabelValues;
+    }
+
+    /**
+     * Sets how many distinct values a label accepts before folding new ones
+     * into {@value #OVERFLOW_LABEL_VALUE}. Values already seen are kept.
+     *
+     * @param maxLabelValues The limit per family and label
+     */
+    public void setMaxLabelValues(int maxLabelValues) {
+        if (maxLabelValues < 1) {
+            throw new IllegalArgumentException("The label value limit must be positive");
+        }
+        this.maxLabelValues = maxLabelValues;
+    }
+
+    /**
+     * Builds the name of a labeled metric, applying the cardinality limit.
+     */
+    private String labeled(String family, String label, String value) {
+        Set<String> seen = labelValues.computeIfAbsent(family + '{' + label, key -> ConcurrentHashMap.newKeySet());
+        if (!seen.contains(value)) {
+            synchronized (seen) {
+                if (!seen.contains(value)) {
+                    if (seen.size() >= maxLabelValues) {
+                        value = OVERFLOW_LABEL_VALUE;
+                    } else {
+                        seen.add(value);
+                    }
+                }
+            }
+        }
+        return family + '{' + label + "=\"" + escape(value) + "\"}";
+    }
+
+    /**
+     * Escapes a label value the way the OpenMetrics text format expects it.
+     */
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private <M extends Metric> M get(String name, Class<M> type, Function<String, M> factory) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, factory);
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already a " + kind(metric));
+        }
+        return type.cast(metric);
+    }
+
+    private static String kind(Metric metric) {
+        return metric.getClass().getSimpleName().toLowerCase();
+    }
+}
@@ -0,0 +1,292 @@
+package me.josielcm.jcm.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Renders a {@link MetricsRegistry} in the OpenMetrics text format, the
+ * format Prometheus scrapes.
+ * <p>
+ * The exporter can write the text to a file on a timer (for the node
+ * exporter textfile collector) and/or serve it on {@code /metrics} from an
+ * embedded HTTP server bound to the loopback address only. Both run on a
+ * single daemon thread: the snapshot only reads atomic counters, so a scrape
+ * never waits for the main thread and the main thread never waits for a
+ * scrape. Gauges are sampled on that thread too.
+ * <p>
+ * Timers are exported as histograms in seconds, histograms as summaries with
+ * the 0.5, 0.9 and 0.99 quantiles, counters as {@code _total} counters.
+ *
+ * <pre>
+ * JCoreAPI.getMetricsExporter().startHttp(9464);
+ * JCoreAPI.getMetricsExporter().startFile(Path.of("metrics/jcoreapi.prom"), Duration.ofSeconds(15));
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class OpenMetricsExporter {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /** Prefix of every exported family name */
+    private static final String NAMESPACE = "jcoreapi_";
+
+    /** Upper bounds of the timer buckets, in nanoseconds */
+    private static final long[] BUCKET_NANOS = {
+            1_000L, 5_000L, 10_000L, 50_000L, 100_000L, 500_000L,
+            1_000_000L, 5_000_000L, 10_000_000L, 50_000_000L, 100_000_000L, 500_000_000L,
+            1_000_000_000L
+    };
+
+    /** The same bounds rendered as seconds */
+    private static final String[] BUCKET_LABELS = new String[BUCKET_NANOS.length];
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    static {
+        for (int i = 0; i < BUCKET_NANOS.length; i++) {
+            BUCKET_LABELS[i] = BigDecimal.valueOf(BUCKET_NANOS[i], 9).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private final MetricsRegistry registry;
+
+    private ScheduledExecutorService executor;
+    private HttpServer server;
+
+    public OpenMetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Renders every registered metric.
+     *
+     * @return The OpenMetrics text, ending with {@code # EOF}
+     */
+    public String render() {
+        Map<String, List<Metric>> families = new LinkedHashMap<>();
+        for (Metric metric : registry.getMetrics()) {
+            families.computeIfAbsent(family(metric.getName()), key -> new ArrayList<>()).add(metric);
+        }
+
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, List<Metric>> entry : families.entrySet()) {
+            List<Metric> metrics = entry.getValue();
+            String name = NAMESPACE + sanitize(entry.getKey());
+            Metric first = metrics.get(0);
+
+            if (first instanceof Timer) {
+                name += "_seconds";
+                out.append("# TYPE ").append(name).append(" histogram\n");
+                out.append("# UNIT ").append(name).append(" seconds\n");
+            } else if (first instanceof Histogram) {
+                out.append("# TYPE ").append(name).append(" summary\n");
+            } else if (first instanceof Counter) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+            } else {
+                out.append("# TYPE ").append(name).append(" gauge\n");
+            }
+
+            for (Metric metric : metrics) {
+                if (metric.getClass() != first.getClass()) {
+                    // A family has a single type, the first one registered wins
+                    continue;
+                }
+                String labels = labels(metric.getName());
+                if (metric instanceof Timer timer) {
+                    writeTimer(out, name, labels, timer.snapshot());
+                } else if (metric instanceof Histogram histogram) {
+                    writeSummary(out, name, labels, histogram.snapshot());
+                } else if (metric instanceof Counter counter) {
+                    sample(out, name + "_total", labels, null, Long.toString(counter.get()));
+                } else if (metric instanceof Gauge gauge) {
+                    sample(out, name, labels, null, Double.toString(gauge.get()));
+                }
+            }
+        }
+
+        return out.append("# EOF\n").toString();
+    }
+
+    /**
+     * Writes the metrics to a file every interval. The file is replaced
+     * atomically, so readers never see half of it.
+     *
+     * @param file The target file
+     * @param interval How often the file is rewritten
+     */
+    public synchronized void startFile(Path file, Duration interval) {
+        long millis = interval.toMillis();
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        executor().scheduleAtFixedRate(() -> writeFile(file), 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Serves the metrics on {@code http://127.0.0.1:<port>/metrics}. Only the
+     * loopback interface is bound; put a reverse proxy in front to expose it.
+     *
+     * @param port The port, or 0 for any free port
+     * @return The port the server is bound to
+     * @throws IOException If the port cannot be bound
+     */
+    public synchronized int startHttp(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The metrics endpoint is already running on port " + server.getAddress().getPort());
+        }
+
+        HttpServer created = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        created.createContext("/metrics", this::handle);
+        created.setExecutor(executor());
+        created.start();
+        server = created;
+        return created.getAddress().getPort();
+    }
+
+    /**
+     * Stops the file writer and the HTTP endpoint.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    private ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "JCoreAPI Metrics Exporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void writeFile(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, render(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Keep the schedule alive, the next run may succeed
+            System.err.println("[JCoreAPI] Failed to write metrics to " + file + ": " + e);
+        }
+    }
+
+    private static void writeTimer(StringBuilder out, String name, String labels, HistogramSnapshot snapshot) {
+        for (int i = 0; i < BUCKET_NANOS.length; i++) {
+            sample(out, name + "_bucket", labels, "le=\"" + BUCKET_LABELS[i] + "\"",
+                    Long.toString(snapshot.getCountAtOrBelow(BUCKET_NANOS[i])));
+        }
+        sample(out, name + "_bucket", labels, "le=\"+Inf\"", Long.toString(snapshot.getCount()));
+        sample(out, name + "_count", labels, null, Long.toString(snapshot.getCount()));
+        sample(out, name + "_sum", labels, null, Double.toString(snapshot.getSum() / 1e9));
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, HistogramSnapshot snapshot) {
+        for (double quantile : QUANTILES) {
+            sample(out, name, labels, "quantile=\"" + quantile + "\"",
+                    Long.toString(snapshot.getValueAtPercentile(quantile * 100)));
+        }
+        sample(out, name + "_count", labels, null, Long.toString(snapshot.getCount()));
+        sample(out, name + "_sum", labels, null, Long.toString(snapshot.getSum()));
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String extra, String value) {
+        out.append(name);
+        if (labels != null || extra != null) {
+            out.append('{');
+            if (labels != null) {
+                out.append(labels);
+            }
+            if (extra != null) {
+                if (labels != null) {
+                    out.append(',');
+                }
+                out.append(extra);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Gets the family part of a metric name, without its labels.
+     */
+    private static String family(String name) {
+        int brace = name.indexOf('{');
+        return brace < 0 ? name : name.substring(0, brace);
+    }
+
+    /**
+     * Gets the labels of a metric name, already escaped by the registry.
+     */
+    private static String labels(String name) {
+        int brace = name.indexOf('{');
+        return brace < 0 ? null : name.substring(brace + 1, name.length() - 1);
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+            builder.append(valid ? c : '_');
+        }
+        return builder.toString();
+    }
+}
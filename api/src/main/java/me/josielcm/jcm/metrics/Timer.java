@@ -0,0 +1,103 @@
+package me.josielcm.jcm.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Measures how long an operation takes, in nanoseconds.
+ * <p>
+ * The start/stop pair keeps the hot path free of lambdas:
+ *
+ * <pre>
+ * private static final Timer TIMER = JCoreAPI.getMetrics().timer("regions.scan");
+ *
+ * long start = TIMER.start();
+ * try {
+ *     scan();
+ * } finally {
+ *     TIMER.stop(start);
+ * }
+ * </pre>
+ *
+ * While the registry is disabled {@link #start()} does not read the clock and
+ * {@link #stop(long)} records nothing.
+ *
+ * @author JosielCM
+ */
+public final class Timer implements Metric {
+
+    /** Returned by {@link #start()} while metrics are disabled */
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final MetricsRegistry registry;
+    private final Histogram histogram;
+
+    Timer(MetricsRegistry registry, String name) {
+        this.registry = registry;
+        this.histogram = new Histogram(name);
+    }
+
+    @Override
+    public String getName() {
+        return histogram.getName();
+    }
+
+    /**
+     * Starts a measurement.
+     *
+     * @return The start time to pass to {@link #stop(long)}
+     */
+    public long start() {
+        return registry.isEnabled() ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Ends a measurement and records its duration.
+     *
+     * @param start The value returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if (start != DISABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a duration measured elsewhere.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void time(Runnable task) {
+        long start = start();
+        try {
+            task.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public <T> T time(Supplier<T> task) {
+        long start = start();
+        try {
+            return task.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    /**
+     * Copies the recorded durations.
+     *
+     * @return A snapshot of the durations, in nanoseconds
+     */
+    public HistogramSnapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
@@ -0,0 +1,96 @@
+package me.josielcm.jcm.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+
+import me.josielcm.jcm.profiler.TickProfiler.AreaStats;
+import me.josielcm.jcm.profiler.TickProfiler.Report;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Controls the {@link TickProfiler}: {@code /jcprofiler start},
+ * {@code /jcprofiler stop} and {@code /jcprofiler report}.
+ *
+ * @author JosielCM
+ */
+public final class ProfilerCommand extends Command {
+
+    public static final String NAME = "jcprofiler";
+    public static final String PERMISSION = "jcoreapi.profiler";
+
+    private static final List<String> SUBCOMMANDS = List.of("start", "stop", "report");
+
+    public ProfilerCommand() {
+        super(NAME, "Attributes main-thread time to JCoreAPI features", "/" + NAME + " <start|stop|report>", List.of());
+        setPermission(PERMISSION);
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String label, String[] args) {
+        if (!testPermission(sender)) {
+            return true;
+        }
+
+        String subcommand = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "report";
+        switch (subcommand) {
+            case "start" -> {
+                TickProfiler.start();
+                sender.sendMessage(Component.text("Tick profiler started, the report covers the last "
+                        + TickProfiler.WINDOW_TICKS + " ticks.", NamedTextColor.GREEN));
+            }
+            case "stop" -> {
+                TickProfiler.stop();
+                sender.sendMessage(Component.text("Tick profiler stopped, the last window is kept for the report.",
+                        NamedTextColor.GREEN));
+            }
+            case "report" -> sendReport(sender);
+            default -> sender.sendMessage(Component.text("Usage: " + getUsage(), NamedTextColor.RED));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            for (String subcommand : SUBCOMMANDS) {
+                if (subcommand.startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                    completions.add(subcommand);
+                }
+            }
+        }
+        return completions;
+    }
+
+    private static void sendReport(CommandSender sender) {
+        Report report = TickProfiler.report();
+        if (report.ticks() == 0) {
+            sender.sendMessage(Component.text(TickProfiler.isRunning()
+                    ? "No tick recorded yet."
+                    : "The tick profiler is not running, start it with /" + NAME + " start.", NamedTextColor.GRAY));
+            return;
+        }
+
+        sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                "JCoreAPI tick profile: %d ticks, avg tick %.2fms, slowest %.2fms%s",
+                report.ticks(), report.averageTickMillis(), report.slowestTickMillis(),
+                TickProfiler.isRunning() ? "" : " (stopped)"), NamedTextColor.GOLD));
+
+        for (AreaStats stats : report.areas()) {
+            double share = report.averageTickMillis() == 0 ? 0
+                    : stats.averageMillis() / report.averageTickMillis() * 100;
+            sender.sendMessage(Component.text()
+                    .append(Component.text(stats.area().name().toLowerCase(Locale.ROOT) + " ", NamedTextColor.WHITE))
+                    .append(Component.text(String.format(Locale.ROOT,
+                            "avg=%.3fms max=%.2fms total=%.1fms share=%.1f%% slowest=%.2fms",
+                            stats.averageMillis(), stats.maxMillis(), stats.totalMillis(), share,
+                            stats.slowestTickMillis()), NamedTextColor.YELLOW))
+                    .build());
+        }
+    }
+}
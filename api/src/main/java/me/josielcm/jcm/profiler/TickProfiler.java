@@ -0,0 +1,262 @@
+package me.josielcm.jcm.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+
+import me.josielcm.jcm.JCoreAPI;
+
+/**
+ * Attributes main-thread time to the areas of the API, tick by tick.
+ * <p>
+ * Library hot paths bracket their work with {@link #enter(Area)} and
+ * {@link #exit(int)}. While the profiler runs, the time spent between the two
+ * on the main thread is added to the area of the current tick; nested areas
+ * pause their parent, so a placeholder that parses a message counts the
+ * parse as {@link Area#FORMATTING} and only the rest as
+ * {@link Area#PLACEHOLDERS}. At the end of every tick the per-area totals go
+ * into a rolling window of {@link #WINDOW_TICKS} ticks (one minute at 20
+ * TPS), which {@link #report()} summarizes.
+ * <p>
+ * While the profiler is stopped {@link #enter(Area)} is a single volatile
+ * read and {@link #exit(int)} a comparison, the clock is never read.
+ *
+ * <pre>
+ * int token = TickProfiler.enter(Area.REGIONS);
+ * try {
+ *     scan();
+ * } finally {
+ *     TickProfiler.exit(token);
+ * }
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class TickProfiler {
+
+    /** Size of the rolling window, one minute at 20 TPS */
+    public static final int WINDOW_TICKS = 1200;
+
+    /** Returned by {@link #enter(Area)} when nothing is being measured */
+    private static final int NOT_TRACKED = -1;
+
+    /** Deepest nesting tracked, deeper calls are attributed to their parent */
+    private static final int MAX_DEPTH = 16;
+
+    private static final Area[] AREAS = Area.values();
+
+    private static volatile boolean running;
+
+    // Everything below is only touched on the main thread
+    private static final long[] current = new long[AREAS.length];
+    private static final long[][] window = new long[WINDOW_TICKS][AREAS.length];
+    private static final double[] tickMillis = new double[WINDOW_TICKS];
+    private static int head;
+    private static int filled;
+
+    private static final Area[] stack = new Area[MAX_DEPTH];
+    private static int depth;
+    private static long segmentStart;
+
+    private static Listener listener;
+
+    private TickProfiler() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * The parts of the API main-thread time is attributed to.
+     */
+    public enum Area {
+        REGIONS,
+        SELECTOR,
+        PARTICLES,
+        FORMATTING,
+        PLACEHOLDERS,
+        ITEMS
+    }
+
+    /**
+     * Per-area totals over the window.
+     *
+     * @param area The area
+     * @param totalMillis Time spent in the area over the whole window
+     * @param averageMillis Average time per tick
+     * @param maxMillis Most time spent in the area in a single tick
+     * @param slowestTickMillis Time spent in the area during the slowest tick
+     */
+    public record AreaStats(Area area, double totalMillis, double averageMillis, double maxMillis,
+            double slowestTickMillis) {
+    }
+
+    /**
+     * Summary of the window.
+     *
+     * @param ticks Number of ticks in the window
+     * @param averageTickMillis Average duration of a tick
+     * @param slowestTickMillis Duration of the slowest tick
+     * @param areas Per-area totals, most expensive first
+     */
+    public record Report(int ticks, double averageTickMillis, double slowestTickMillis, List<AreaStats> areas) {
+    }
+
+    /**
+     * Starts profiling, clearing the previous window. Must be called on the
+     * main thread.
+     */
+    public static void start() {
+        if (running) {
+            return;
+        }
+
+        clear();
+        listener = new TickListener();
+        Bukkit.getPluginManager().registerEvents(listener, JCoreAPI.getPlugin());
+        running = true;
+    }
+
+    /**
+     * Stops profiling. The window is kept for {@link #report()}. Must be
+     * called on the main thread.
+     */
+    public static void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        HandlerList.unregisterAll(listener);
+        listener = null;
+        depth = 0;
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts attributing main-thread time to an area.
+     *
+     * @param area The area
+     * @return The token to pass to {@link #exit(int)}
+     */
+    public static int enter(Area area) {
+        if (!running || !Bukkit.isPrimaryThread()) {
+            return NOT_TRACKED;
+        }
+
+        long now = System.nanoTime();
+        if (depth > 0) {
+            current[stack[depth - 1].ordinal()] += now - segmentStart;
+        }
+        if (depth == MAX_DEPTH) {
+            // Keep the parent's time flowing, this call is not tracked on its own
+            segmentStart = now;
+            return NOT_TRACKED;
+        }
+
+        stack[depth++] = area;
+        segmentStart = now;
+        return depth;
+    }
+
+    /**
+     * Stops attributing time to the area entered last.
+     *
+     * @param token The value returned by {@link #enter(Area)}
+     */
+    public static void exit(int token) {
+        if (token == NOT_TRACKED || token > depth) {
+            return;
+        }
+
+        // Unwinds nested areas whose exit was skipped along the way
+        long now = System.nanoTime();
+        current[stack[depth - 1].ordinal()] += now - segmentStart;
+        depth = token - 1;
+        segmentStart = now;
+    }
+
+    /**
+     * Summarizes the window. Must be called on the main thread.
+     *
+     * @return The report, empty if no tick was recorded
+     */
+    public static Report report() {
+        long[] total = new long[AREAS.length];
+        long[] max = new long[AREAS.length];
+        double tickTotal = 0;
+        int slowest = -1;
+
+        for (int i = 0; i < filled; i++) {
+            for (int area = 0; area < AREAS.length; area++) {
+                long nanos = window[i][area];
+                total[area] += nanos;
+                max[area] = Math.max(max[area], nanos);
+            }
+            tickTotal += tickMillis[i];
+            if (slowest < 0 || tickMillis[i] > tickMillis[slowest]) {
+                slowest = i;
+            }
+        }
+
+        List<AreaStats> areas = new ArrayList<>(AREAS.length);
+        for (Area area : AREAS) {
+            int index = area.ordinal();
+            areas.add(new AreaStats(area,
+                    total[index] / 1e6,
+                    filled == 0 ? 0 : total[index] / 1e6 / filled,
+                    max[index] / 1e6,
+                    slowest < 0 ? 0 : window[slowest][index] / 1e6));
+        }
+        areas.sort(Comparator.comparingDouble(AreaStats::totalMillis).reversed());
+
+        return new Report(filled,
+                filled == 0 ? 0 : tickTotal / filled,
+                slowest < 0 ? 0 : tickMillis[slowest],
+                areas);
+    }
+
+    private static void clear() {
+        Arrays.fill(current, 0);
+        for (long[] tick : window) {
+            Arrays.fill(tick, 0);
+        }
+        Arrays.fill(tickMillis, 0);
+        head = 0;
+        filled = 0;
+        depth = 0;
+    }
+
+    /**
+     * Moves the totals of the tick that just ended into the window.
+     */
+    private static void endTick(double durationMillis) {
+        long[] slot = window[head];
+        System.arraycopy(current, 0, slot, 0, current.length);
+        Arrays.fill(current, 0);
+        tickMillis[head] = durationMillis;
+
+        head = (head + 1) % WINDOW_TICKS;
+        if (filled < WINDOW_TICKS) {
+            filled++;
+        }
+    }
+
+    private static final class TickListener implements Listener {
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTickEnd(ServerTickEndEvent event) {
+            endTick(event.getTickDuration());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package me.josielcm.jcm.scheduler;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.bukkit.Location;
+
+import me.josielcm.jcm.JCoreAPI;
+import me.josielcm.jcm.logger.Log;
+
+/**
+ * Spreads a long run of work over several ticks.
+ * <p>
+ * Each tick, units are taken from the iterator and handed to the action until
+ * the tick budget is used up, then the rest waits for the next tick. At least
+ * one unit runs per tick, so a unit slower than the budget still makes
+ * progress. Units run on the main thread, in iterator order.
+ *
+ * <pre>
+ * BudgetedExecutor.of(cuboid.blockIterator(), block -&gt; block.setType(Material.AIR))
+ *         .budget(5)
+ *         .total(cuboid.getTotalBlockSize())
+ *         .onProgress((done, total) -&gt; bar.progress((float) done / total))
+ *         .start()
+ *         .thenAccept(count -&gt; player.sendMessage("Cleared " + count + " blocks"));
+ * </pre>
+ *
+ * Cancelling the returned future stops the work before the next tick.
+ * <p>
+ * On Folia the units run on the global region thread unless the executor is
+ * anchored with {@link #at(Location)}, in which case they run on the region
+ * owning the anchor and must stay within that region.
+ *
+ * @param <T> Type of the work units
+ * @author JosielCM
+ */
+public final class BudgetedExecutor<T> {
+
+    /** Budget used when none is set, in milliseconds */
+    public static final long DEFAULT_BUDGET_MILLIS = 5;
+
+    private final Iterator<? extends T> units;
+    private final Consumer<? super T> action;
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+    private long budgetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_BUDGET_MILLIS);
+    private long total = -1;
+    private ProgressListener progress;
+    private Location anchor;
+
+    private ScheduledTask task;
+    private volatile long done;
+
+    private BudgetedExecutor(Iterator<? extends T> units, Consumer<? super T> action) {
+        this.units = units;
+        this.action = action;
+    }
+
+    /**
+     * Creates an executor that runs an action for every unit of an iterator.
+     * Nothing runs until {@link #start()}.
+     *
+     * @param units The work units, read lazily from the main thread
+     * @param action The work done for each unit
+     * @return The executor
+     */
+    public static <T> BudgetedExecutor<T> of(Iterator<? extends T> units, Consumer<? super T> action) {
+        if (units == null || action == null) {
+            throw new IllegalArgumentException("Units and action cannot be null");
+        }
+        return new BudgetedExecutor<>(units, action);
+    }
+
+    /**
+     * Sets how long the units may run each tick.
+     *
+     * @param millis The budget in milliseconds
+     * @return This executor
+     */
+    public BudgetedExecutor<T> budget(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("The budget must be positive");
+        }
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return this;
+    }
+
+    /**
+     * Sets the number of units, passed to the progress listener.
+     *
+     * @param total The expected number of units
+     * @return This executor
+     */
+    public BudgetedExecutor<T> total(long total) {
+        this.total = total;
+        return this;
+    }
+
+    /**
+     * Sets a listener called on the main thread after every tick that ran
+     * units.
+     *
+     * @param listener The listener
+     * @return This executor
+     */
+    public BudgetedExecutor<T> onProgress(ProgressListener listener) {
+        this.progress = listener;
+        return this;
+    }
+
+    /**
+     * Runs the units on the thread owning a location, for work on blocks or
+     * entities around it.
+     *
+     * @param location The location the units work on
+     * @return This executor
+     */
+    public BudgetedExecutor<T> at(Location location) {
+        this.anchor = location;
+        return this;
+    }
+
+    /**
+     * Starts the work on the API scheduler, from the next tick.
+     *
+     * @return A future completed with the number of units run
+     * @throws IllegalStateException If the API is not initialized or the executor was already started
+     */
+    public CompletableFuture<Long> start() {
+        JCoreScheduler scheduler = JCoreAPI.getScheduler();
+        if (scheduler == null) {
+            throw new IllegalStateException("JCoreAPI is not initialized");
+        }
+        return start(scheduler);
+    }
+
+    /**
+     * Starts the work on a scheduler, from the next tick. If the scheduler
+     * is already shut down, the future is cancelled; work left when it shuts
+     * down later is dropped with its other tasks.
+     *
+     * @param scheduler The scheduler that owns the work
+     * @return A future completed with the number of units run
+     * @throws IllegalStateException If the executor was already started
+     */
+    public synchronized CompletableFuture<Long> start(JCoreScheduler scheduler) {
+        if (task != null) {
+            throw new IllegalStateException("The executor was already started");
+        }
+        task = anchor == null
+                ? scheduler.runTimer(this::tick, 1, 1)
+                : scheduler.runTimerAt(anchor, this::tick, 1, 1);
+        future.whenComplete((count, error) -> task.cancel());
+        if (task.isCancelled()) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of units run so far.
+     *
+     * @return The count
+     */
+    public long getDone() {
+        return done;
+    }
+
+    private void tick() {
+        if (future.isDone()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            while (units.hasNext()) {
+                action.accept(units.next());
+                done++;
+                if (System.nanoTime() - start >= budgetNanos) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+
+        if (progress != null) {
+            try {
+                progress.onProgress(done, total);
+            } catch (Exception e) {
+                Log.logError("Error in a progress listener", e);
+            }
+        }
+
+        if (!units.hasNext()) {
+            future.complete(done);
+        }
+    }
+
+    /**
+     * Receives the progress of a {@link BudgetedExecutor}.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param done Units run so far
+         * @param total Units expected, or -1 if the total was not set
+         */
+        void onProgress(long done, long total);
+    }
+}
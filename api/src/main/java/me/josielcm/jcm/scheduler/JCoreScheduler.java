@@ -0,0 +1,535 @@
+package me.josielcm.jcm.scheduler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import me.josielcm.jcm.logger.Log;
+
+/**
+ * One place to run work on and off the main thread, owned by a plugin.
+ * <p>
+ * The scheduler has three lanes:
+ * <ul>
+ *   <li><b>Sync</b>: {@link #runSync(Runnable)} and {@link #coalesce(Object, Runnable)}
+ *       queue callbacks that run on the main thread. However many are queued,
+ *       they are drained by a single task on the next tick, and coalesced
+ *       callbacks only run the latest one queued per key.</li>
+ *   <li><b>Async</b>: {@link #runAsync(Runnable)} and {@link #supplyAsync(Supplier)}
+ *       run on virtual threads on Java 21 and later, on a bounded pool of
+ *       daemon threads on Java 17. Use {@link #getSyncExecutor()} to rejoin
+ *       the main thread.</li>
+ *   <li><b>Delayed</b>: {@link #runLater(Runnable, long)} and
+ *       {@link #runTimer(Runnable, long, long)}, with async variants.</li>
+ * </ul>
+ * Everything is tied to the owning plugin: {@link #shutdown()} cancels the
+ * delayed tasks, drops queued callbacks and stops the async lane. Futures of
+ * dropped work are cancelled, and work submitted afterwards is rejected.
+ * <p>
+ * Tasks go through {@link TaskRouter}, so the scheduler also runs on Folia.
+ * There the sync lane and the delayed lane run on the global region thread,
+ * which owns no world data: work on blocks or entities should use
+ * {@link #runAt(Location, Runnable)}, {@link #runFor(Entity, Runnable)} and
+ * their timer variants, which run on the region owning the location or
+ * entity. Outside Folia they run on the main thread like the rest.
+ *
+ * <pre>
+ * JCoreScheduler scheduler = JCoreAPI.getScheduler();
+ * scheduler.supplyAsync(() -&gt; database.load(uuid))
+ *         .thenAcceptAsync(data -&gt; apply(player, data), scheduler.getSyncExecutor());
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class JCoreScheduler {
+
+    private static final int ASYNC_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Executors.newVirtualThreadPerTaskExecutor, or null before Java 21 */
+    private static final MethodHandle VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    private final Plugin plugin;
+
+    private final Queue<Runnable> syncQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger syncPending = new AtomicInteger();
+    private final Map<Object, Runnable> coalesced = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Executor syncExecutor = this::executeSync;
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+    private final Set<Handle> tasks = ConcurrentHashMap.newKeySet();
+
+    private final Object asyncLock = new Object();
+    private ExecutorService asyncExecutor;
+
+    private volatile TimingWheel timingWheel;
+
+    private volatile boolean shutdown;
+
+    public JCoreScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Queues a callback for the main thread. Callbacks queued before the
+     * next tick run together, in order, from a single task.
+     *
+     * @param task The callback
+     */
+    public void runSync(Runnable task) {
+        if (shutdown) {
+            return;
+        }
+        syncQueue.add(task);
+        syncPending.incrementAndGet();
+        scheduleDrain();
+    }
+
+    /**
+     * Queues a callback for the main thread, replacing any callback queued
+     * under the same key that has not run yet. Use it for work where only
+     * the latest state matters, such as refreshing a scoreboard.
+     *
+     * @param key Identifies the work, compared with {@code equals}
+     * @param task The callback
+     */
+    public void coalesce(Object key, Runnable task) {
+        if (shutdown) {
+            return;
+        }
+        coalesced.put(key, task);
+        scheduleDrain();
+    }
+
+    /**
+     * Computes a value on the main thread.
+     *
+     * @param supplier Computes the value
+     * @return A future completed on the main thread, cancelled if the
+     *         scheduler shuts down first
+     * @throws IllegalStateException If the scheduler was shut down
+     */
+    public <T> CompletableFuture<T> supplySync(Supplier<T> supplier) {
+        checkRunning();
+        CompletableFuture<T> future = track(new CompletableFuture<>());
+        runSync(() -> complete(future, supplier));
+        return future;
+    }
+
+    /**
+     * Runs a task on the thread that owns a location: its region on Folia,
+     * the main thread elsewhere.
+     *
+     * @param location The location the task works on
+     * @param task The task
+     */
+    public void runAt(Location location, Runnable task) {
+        if (!shutdown) {
+            TaskRouter.execute(plugin, location, guard(task));
+        }
+    }
+
+    /**
+     * Computes a value on the thread that owns a location.
+     *
+     * @param location The location the computation reads
+     * @param supplier Computes the value
+     * @return A future completed on the owning thread, cancelled if the
+     *         scheduler shuts down first
+     * @throws IllegalStateException If the scheduler was shut down
+     */
+    public <T> CompletableFuture<T> supplyAt(Location location, Supplier<T> supplier) {
+        checkRunning();
+        CompletableFuture<T> future = track(new CompletableFuture<>());
+        runAt(location, () -> complete(future, supplier));
+        return future;
+    }
+
+    /**
+     * Runs a task on the thread that owns an entity, following it across
+     * regions on Folia.
+     *
+     * @param entity The entity the task works on
+     * @param task The task
+     * @return false if the entity was already removed and the task will not run
+     */
+    public boolean runFor(Entity entity, Runnable task) {
+        return !shutdown && TaskRouter.execute(plugin, entity, guard(task), null);
+    }
+
+    /**
+     * Gets an executor that queues on the sync lane, for
+     * {@code thenAcceptAsync(..., executor)} style chaining. Once the
+     * scheduler is shut down it throws {@link RejectedExecutionException},
+     * which completes the chained future exceptionally; stages queued before
+     * the shutdown are dropped with the other callbacks.
+     *
+     * @return The sync lane as an executor
+     */
+    public Executor getSyncExecutor() {
+        return syncExecutor;
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, getAsyncExecutor());
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, getAsyncExecutor());
+    }
+
+    /**
+     * Gets the executor behind the async lane, starting it on first use.
+     *
+     * @return The async executor
+     * @throws IllegalStateException If the scheduler was shut down
+     */
+    public ExecutorService getAsyncExecutor() {
+        synchronized (asyncLock) {
+            checkRunning();
+            if (asyncExecutor == null) {
+                asyncExecutor = newAsyncExecutor();
+            }
+            return asyncExecutor;
+        }
+    }
+
+    /**
+     * Checks whether the async lane runs on virtual threads.
+     *
+     * @return true on Java 21 and later
+     */
+    public boolean isVirtualThreads() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Runs a task on the main thread after a delay.
+     *
+     * @param task The task
+     * @param delayTicks The delay in ticks
+     * @return The task handle
+     */
+    public ScheduledTask runLater(Runnable task, long delayTicks) {
+        Handle handle = new Handle(true);
+        return handle.start(TaskRouter.runLater(plugin, handle.wrap(task), delayTicks));
+    }
+
+    /**
+     * Runs a task on the main thread every period.
+     *
+     * @param task The task
+     * @param delayTicks The delay before the first run, in ticks
+     * @param periodTicks The period in ticks
+     * @return The task handle
+     */
+    public ScheduledTask runTimer(Runnable task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle(false);
+        return handle.start(TaskRouter.runTimer(plugin, handle.wrap(task), delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task after a delay on the thread that owns a location.
+     *
+     * @see #runAt(Location, Runnable)
+     */
+    public ScheduledTask runLaterAt(Location location, Runnable task, long delayTicks) {
+        Handle handle = new Handle(true);
+        return handle.start(TaskRouter.runLater(plugin, location, handle.wrap(task), delayTicks));
+    }
+
+    /**
+     * Runs a task every period on the thread that owns a location.
+     *
+     * @see #runAt(Location, Runnable)
+     */
+    public ScheduledTask runTimerAt(Location location, Runnable task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle(false);
+        return handle.start(TaskRouter.runTimer(plugin, location, handle.wrap(task), delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task every period on the thread that owns an entity. The task
+     * stops when the entity is removed.
+     *
+     * @see #runFor(Entity, Runnable)
+     */
+    public ScheduledTask runTimerFor(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle(false);
+        return handle.start(TaskRouter.runTimer(plugin, entity, handle.wrap(task), delayTicks, periodTicks));
+    }
+
+    public ScheduledTask runLaterAsync(Runnable task, long delayTicks) {
+        Handle handle = new Handle(true);
+        return handle.start(TaskRouter.runLaterAsync(plugin, handle.wrap(task), delayTicks));
+    }
+
+    public ScheduledTask runTimerAsync(Runnable task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle(false);
+        return handle.start(TaskRouter.runTimerAsync(plugin, handle.wrap(task), delayTicks, periodTicks));
+    }
+
+    /**
+     * Gets the timing wheel of this scheduler, starting it on first use.
+     * Prefer it over {@link #runLater(Runnable, long)} for large numbers of
+     * short timers: they share a single repeating task.
+     *
+     * @return The timing wheel
+     * @throws IllegalStateException If the scheduler was shut down
+     */
+    public TimingWheel getTimingWheel() {
+        TimingWheel wheel = timingWheel;
+        if (wheel != null) {
+            return wheel;
+        }
+        synchronized (this) {
+            checkRunning();
+            if (timingWheel == null) {
+                timingWheel = new TimingWheel(this);
+            }
+            return timingWheel;
+        }
+    }
+
+    /**
+     * Cancels every delayed and repeating task started by this scheduler.
+     */
+    public void cancelAll() {
+        for (Handle handle : tasks) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Cancels every task, drops queued sync callbacks and stops the async
+     * lane and the timing wheel. Running async tasks are interrupted, and
+     * futures of {@link #supplySync(Supplier)} and
+     * {@link #supplyAt(Location, Supplier)} that have not completed are
+     * cancelled.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+        }
+        cancelAll();
+        syncQueue.clear();
+        syncPending.set(0);
+        coalesced.clear();
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(false);
+        }
+
+        synchronized (asyncLock) {
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdownNow();
+                asyncExecutor = null;
+            }
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    private void executeSync(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("The scheduler of " + plugin.getName() + " was shut down");
+        }
+        runSync(task);
+    }
+
+    private void checkRunning() {
+        if (shutdown) {
+            throw new IllegalStateException("The scheduler of " + plugin.getName() + " was shut down");
+        }
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        pending.add(future);
+        future.whenComplete((value, error) -> pending.remove(future));
+        // shutdown() sets the flag before cancelling pending futures, so a
+        // future added after that pass sees the flag here
+        if (shutdown) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Supplier<T> supplier) {
+        if (future.isDone()) {
+            return;
+        }
+        try {
+            future.complete(supplier.get());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static ExecutorService newAsyncExecutor() {
+        if (VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                // The factory takes no arguments and does not throw, fall back to the pool regardless
+            }
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "JCoreAPI Async #" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static MethodHandle findVirtualExecutor() {
+        // Java 19 and 20 have the method as a preview API that throws unless enabled
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            TaskRouter.execute(plugin, this::drain);
+        }
+    }
+
+    /**
+     * Runs the callbacks queued so far. Callbacks queued while draining wait
+     * for the next tick, so a callback that queues itself cannot stall the
+     * tick.
+     */
+    private void drain() {
+        drainScheduled.set(false);
+
+        int count = syncPending.get();
+        for (int i = 0; i < count; i++) {
+            Runnable task = syncQueue.poll();
+            if (task == null) {
+                break;
+            }
+            syncPending.decrementAndGet();
+            run(task);
+        }
+
+        for (Object key : coalesced.keySet()) {
+            Runnable task = coalesced.remove(key);
+            if (task != null) {
+                run(task);
+            }
+        }
+
+        if (syncPending.get() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Wraps a one-off task so it is skipped once the scheduler shuts down.
+     */
+    private Runnable guard(Runnable task) {
+        return () -> {
+            if (!shutdown) {
+                run(task);
+            }
+        };
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            Log.logError("Error running a scheduled callback", e);
+        }
+    }
+
+    private final class Handle implements ScheduledTask {
+        private final boolean once;
+        private volatile ScheduledTask task;
+        private volatile boolean cancelled;
+
+        Handle(boolean once) {
+            this.once = once;
+        }
+
+        Runnable wrap(Runnable runnable) {
+            return () -> {
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    if (once) {
+                        cancelled = true;
+                        tasks.remove(this);
+                    }
+                }
+            };
+        }
+
+        ScheduledTask start(ScheduledTask started) {
+            task = started;
+            if (started.isCancelled()) {
+                // The entity of an entity timer was already removed
+                cancelled = true;
+            } else if (!cancelled) {
+                tasks.add(this);
+            }
+            if (shutdown) {
+                cancel();
+            }
+            return this;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            tasks.remove(this);
+            ScheduledTask started = task;
+            if (started != null) {
+                started.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
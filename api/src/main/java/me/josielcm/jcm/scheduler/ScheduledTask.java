@@ -0,0 +1,22 @@
+package me.josielcm.jcm.scheduler;
+
+/**
+ * Handle of a task started by a {@link JCoreScheduler}.
+ *
+ * @author JosielCM
+ */
+public interface ScheduledTask {
+
+    /**
+     * Cancels the task. A running execution finishes, no new one starts.
+     */
+    void cancel();
+
+    /**
+     * Checks whether the task was cancelled, either directly or because its
+     * scheduler was shut down.
+     *
+     * @return true if the task will not run again
+     */
+    boolean isCancelled();
+}
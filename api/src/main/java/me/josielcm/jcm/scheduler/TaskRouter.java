@@ -0,0 +1,233 @@
+package me.josielcm.jcm.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Routes tasks to the scheduler that owns the data they touch.
+ * <p>
+ * On Paper and Spigot everything runs on the main thread through the Bukkit
+ * scheduler. On Folia there is no main thread: work on a location runs on the
+ * region that owns it, work on an entity follows the entity across regions,
+ * and world-independent work runs on the global region. Code written against
+ * this class runs unchanged on both.
+ * <p>
+ * Folia rejects delays and periods below one tick, so they are raised to one
+ * there.
+ *
+ * @author JosielCM
+ */
+public final class TaskRouter {
+
+    private static final boolean FOLIA = detectFolia();
+
+    private static final long MILLIS_PER_TICK = 50;
+
+    private TaskRouter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Checks whether the server runs Folia.
+     *
+     * @return true if regions tick on their own threads
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * Checks whether the current thread may touch a location.
+     *
+     * @param location The location
+     * @return true on the thread of the owning region, or on the main thread outside Folia
+     */
+    public static boolean isOwnedByCurrentThread(Location location) {
+        return FOLIA ? Bukkit.isOwnedByCurrentRegion(location) : Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Checks whether the current thread may touch an entity.
+     *
+     * @param entity The entity
+     * @return true on the thread of the region holding it, or on the main thread outside Folia
+     */
+    public static boolean isOwnedByCurrentThread(Entity entity) {
+        return FOLIA ? Bukkit.isOwnedByCurrentRegion(entity) : Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Runs a task on the next tick, on the global region or the main thread.
+     */
+    public static void execute(Plugin plugin, Runnable task) {
+        if (FOLIA) {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task on the next tick, on the region owning a location.
+     */
+    public static void execute(Plugin plugin, Location location, Runnable task) {
+        if (FOLIA) {
+            Bukkit.getRegionScheduler().execute(plugin, location, task);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task on the next tick, on the region owning a chunk.
+     */
+    public static void execute(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+        if (FOLIA) {
+            Bukkit.getRegionScheduler().execute(plugin, world, chunkX, chunkZ, task);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task on the next tick, on the region holding an entity.
+     *
+     * @param retired Runs instead if the entity is removed first, may be null
+     * @return false if the entity was already removed and nothing was scheduled
+     */
+    public static boolean execute(Plugin plugin, Entity entity, Runnable task, Runnable retired) {
+        if (FOLIA) {
+            return entity.getScheduler().execute(plugin, task, retired, 1);
+        }
+        Bukkit.getScheduler().runTask(plugin, task);
+        return true;
+    }
+
+    public static ScheduledTask runLater(Plugin plugin, Runnable task, long delayTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, t -> task.run(), ticks(delayTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    public static ScheduledTask runTimer(Plugin plugin, Runnable task, long delayTicks, long periodTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, t -> task.run(), ticks(delayTicks),
+                    ticks(periodTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task after a delay, on the region owning a location.
+     */
+    public static ScheduledTask runLater(Plugin plugin, Location location, Runnable task, long delayTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getRegionScheduler().runDelayed(plugin, location, t -> task.run(), ticks(delayTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    /**
+     * Runs a task every period, on the region owning a location.
+     */
+    public static ScheduledTask runTimer(Plugin plugin, Location location, Runnable task, long delayTicks,
+            long periodTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getRegionScheduler().runAtFixedRate(plugin, location, t -> task.run(),
+                    ticks(delayTicks), ticks(periodTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task every period, on the region holding an entity. The task
+     * stops when the entity is removed.
+     *
+     * @return The task, already cancelled if the entity was removed
+     */
+    public static ScheduledTask runTimer(Plugin plugin, Entity entity, Runnable task, long delayTicks,
+            long periodTicks) {
+        if (FOLIA) {
+            return wrap(entity.getScheduler().runAtFixedRate(plugin, t -> task.run(), null, ticks(delayTicks),
+                    ticks(periodTicks)));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    public static ScheduledTask runLaterAsync(Plugin plugin, Runnable task, long delayTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getAsyncScheduler().runDelayed(plugin, t -> task.run(),
+                    delayTicks * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        }
+        return wrap(Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, task, delayTicks));
+    }
+
+    public static ScheduledTask runTimerAsync(Plugin plugin, Runnable task, long delayTicks, long periodTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(plugin, t -> task.run(),
+                    delayTicks * MILLIS_PER_TICK, ticks(periodTicks) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        }
+        return wrap(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks));
+    }
+
+    private static long ticks(long ticks) {
+        return Math.max(1, ticks);
+    }
+
+    private static ScheduledTask wrap(BukkitTask task) {
+        return new ScheduledTask() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+
+    private static ScheduledTask wrap(io.papermc.paper.threadedregions.scheduler.ScheduledTask task) {
+        // Entity schedulers return null when the entity is already removed
+        if (task == null) {
+            return new ScheduledTask() {
+                @Override
+                public void cancel() {
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return true;
+                }
+            };
+        }
+        return new ScheduledTask() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package me.josielcm.jcm.scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+import me.josielcm.jcm.logger.Log;
+
+/**
+ * Hashed hierarchical timing wheel for large numbers of short timers, such as
+ * cooldowns, effect durations or title sequences.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. The first
+ * level holds timers due within {@value #SLOTS} ticks, one slot per tick;
+ * each next level covers {@value #SLOTS} times the span of the previous one,
+ * and its slots are moved down a level when the lower level wraps around.
+ * Scheduling and cancelling are O(1) and never touch the Bukkit scheduler:
+ * the whole wheel is driven by one repeating task.
+ * <p>
+ * Timers can be scheduled and cancelled from any thread. Expired timers are
+ * delivered on the main thread once per tick, in one batch: plain timers
+ * run one after another, and timers of a {@link Group} are handed to its
+ * handler together as one list.
+ *
+ * <pre>
+ * TimingWheel.Group&lt;UUID&gt; cooldowns = wheel.group(expired -&gt; expired.forEach(this::notifyReady));
+ * cooldowns.schedule(player.getUniqueId(), 20 * 30);
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public final class TimingWheel {
+
+    /** Levels of the wheel */
+    public static final int LEVELS = 5;
+
+    /** Slots per level */
+    public static final int SLOTS = 64;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final Bucket[][] wheel = new Bucket[LEVELS][SLOTS];
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final ScheduledTask task;
+
+    /** Last tick processed, only advanced on the main thread */
+    private volatile long tick;
+
+    /**
+     * Creates a wheel driven by a repeating task of a scheduler.
+     *
+     * @param scheduler The scheduler that owns the tick task
+     */
+    public TimingWheel(JCoreScheduler scheduler) {
+        for (Bucket[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Bucket();
+            }
+        }
+        this.task = scheduler.runTimer(this::advance, 1, 1);
+    }
+
+    /**
+     * Runs a task on the main thread after a delay.
+     *
+     * @param task The task
+     * @param delayTicks The delay in ticks, at least one
+     * @return The timer, which can be cancelled
+     */
+    public Timeout schedule(Runnable task, long delayTicks) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        return submit(new Timeout(this, task, null, null, delayTicks));
+    }
+
+    /**
+     * Creates a group of timers whose expiries are handed to one handler.
+     *
+     * @param handler Receives, once per tick, the values of every timer of the
+     *                group that expired in that tick
+     * @return The group
+     */
+    public <T> Group<T> group(Consumer<List<T>> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        return new Group<>(this, handler);
+    }
+
+    /**
+     * Gets the number of timers waiting to expire.
+     *
+     * @return The count
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets the number of ticks the wheel has advanced.
+     *
+     * @return The current tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Stops the wheel. Waiting timers never expire.
+     */
+    public void stop() {
+        task.cancel();
+    }
+
+    public boolean isStopped() {
+        return task.isCancelled();
+    }
+
+    private Timeout submit(Timeout timeout) {
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void advance() {
+        long now = ++tick;
+
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state == Timeout.PENDING) {
+                place(timeout, now);
+            }
+        }
+
+        // Higher levels move down when every level below them wraps around
+        for (int level = 1; level < LEVELS; level++) {
+            long span = 1L << (SLOT_BITS * level);
+            if ((now & (span - 1)) != 0) {
+                break;
+            }
+            cascade(wheel[level][(int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK)], now);
+        }
+
+        Timeout expired = wheel[0][(int) (now & SLOT_MASK)].clear();
+        if (expired != null) {
+            deliver(expired);
+        }
+    }
+
+    private void place(Timeout timeout, long now) {
+        long deadline = Math.max(timeout.deadline, now);
+        long remaining = deadline - now;
+
+        int level = 0;
+        while (level < LEVELS - 1 && remaining >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheel[level][(int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+    }
+
+    private void cascade(Bucket bucket, long now) {
+        Timeout timeout = bucket.clear();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            place(timeout, now);
+            timeout = next;
+        }
+    }
+
+    private void deliver(Timeout expired) {
+        List<Runnable> tasks = new ArrayList<>();
+        Map<Group<?>, List<Object>> batches = new LinkedHashMap<>();
+
+        for (Timeout timeout = expired; timeout != null; timeout = timeout.next) {
+            if (!Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                continue;
+            }
+            size.decrementAndGet();
+            if (timeout.group == null) {
+                tasks.add(timeout.task);
+            } else {
+                batches.computeIfAbsent(timeout.group, group -> new ArrayList<>()).add(timeout.value);
+            }
+        }
+
+        for (Runnable runnable : tasks) {
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                Log.logError("Error running an expired timer", e);
+            }
+        }
+        for (Map.Entry<Group<?>, List<Object>> batch : batches.entrySet()) {
+            try {
+                batch.getKey().deliver(batch.getValue());
+            } catch (Exception e) {
+                Log.logError("Error handling expired timers", e);
+            }
+        }
+    }
+
+    /**
+     * Timers whose expiries are delivered together to one handler.
+     *
+     * @param <T> Type of the values carried by the timers
+     */
+    public static final class Group<T> {
+        private final TimingWheel wheel;
+        private final Consumer<List<T>> handler;
+
+        private Group(TimingWheel wheel, Consumer<List<T>> handler) {
+            this.wheel = wheel;
+            this.handler = handler;
+        }
+
+        /**
+         * Schedules a value to be handed to the group handler after a delay.
+         *
+         * @param value The value
+         * @param delayTicks The delay in ticks, at least one
+         * @return The timer, which can be cancelled
+         */
+        public Timeout schedule(T value, long delayTicks) {
+            return wheel.submit(new Timeout(wheel, null, this, value, delayTicks));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(List<Object> values) {
+            handler.accept((List<T>) values);
+        }
+    }
+
+    /**
+     * A timer of a {@link TimingWheel}.
+     */
+    public static final class Timeout implements ScheduledTask {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater
+                .newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final Group<?> group;
+        private final Object value;
+        private final long deadline;
+
+        private volatile int state = PENDING;
+
+        // Only touched on the main thread, while the wheel advances
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, Group<?> group, Object value, long delayTicks) {
+            if (delayTicks < 1) {
+                throw new IllegalArgumentException("The delay must be at least one tick");
+            }
+            this.wheel = wheel;
+            this.task = task;
+            this.group = group;
+            this.value = value;
+            this.deadline = wheel.tick + delayTicks;
+        }
+
+        /**
+         * Cancels the timer. Does nothing if it already expired.
+         */
+        @Override
+        public void cancel() {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                wheel.size.decrementAndGet();
+                wheel.cancelled.add(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /**
+         * Gets the wheel tick at which the timer expires.
+         *
+         * @return The deadline, comparable with {@link TimingWheel#getTick()}
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * Doubly linked list of the timers in one slot.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Empties the bucket.
+         *
+         * @return The first timer of the detached list, linked through {@code next}
+         */
+        Timeout clear() {
+            Timeout first = head;
+            for (Timeout timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.prev = null;
+            }
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package me.josielcm.jcm.shared;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import me.josielcm.jcm.formats.Color;
+import me.josielcm.jcm.logger.Log;
+import me.josielcm.jcm.logger.Logger;
+import net.kyori.adventure.text.Component;
+
+/**
+ * One runtime shared by every plugin that shades JCoreAPI.
+ * <p>
+ * The first copy to bind hosts the runtime and publishes it through the
+ * Bukkit {@link ServicesManager}; later copies find it there and use its
+ * worker pool, parse cache and attachments instead of building their own.
+ * Shaded copies are usually relocated, so they cannot share a single class:
+ * the runtime is published as a plain {@link Map} holding only JDK, Bukkit
+ * and Adventure types, under the keys declared here, with a
+ * {@link #PROTOCOL_VERSION} that a copy checks before binding.
+ * <p>
+ * When the host plugin is disabled, every other copy binds to the next
+ * compatible runtime or starts hosting its own.
+ *
+ * @author JosielCM
+ */
+public final class SharedRuntime {
+
+    /** Version of the map layout. Bumped on incompatible changes only */
+    public static final int PROTOCOL_VERSION = 1;
+
+    /** {@link Integer}, the protocol version of the runtime */
+    public static final String KEY_PROTOCOL = "jcoreapi.protocol";
+
+    /** {@link Plugin}, the plugin hosting the runtime */
+    public static final String KEY_HOST = "jcoreapi.host";
+
+    /** {@link ExecutorService}, the shared worker pool */
+    public static final String KEY_EXECUTOR = "jcoreapi.executor";
+
+    /**
+     * {@code Function<String, Component>}, MiniMessage parsing through the
+     * host's cache. Returns null while the host has no cache, the caller then
+     * parses locally
+     */
+    public static final String KEY_PARSER = "jcoreapi.parser";
+
+    /** {@code ConcurrentMap<String, Object>}, named state shared by every copy */
+    public static final String KEY_ATTACHMENTS = "jcoreapi.attachments";
+
+    private static final int WORKER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static JavaPlugin plugin;
+    private static Listener listener;
+
+    /** The runtime this copy uses, null while unbound */
+    private static volatile Map<String, Object> bound;
+
+    /** The runtime this copy hosts, null unless it is the host */
+    private static Map<String, Object> hosted;
+
+    /** The host's parser while another copy hosts the runtime */
+    private static volatile Function<String, Component> remoteParser;
+
+    private SharedRuntime() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Binds to the shared runtime, hosting it if no compatible one exists.
+     *
+     * @param owner The plugin this copy of the API belongs to
+     */
+    public static synchronized void bind(JavaPlugin owner) {
+        if (plugin != null) {
+            return;
+        }
+
+        plugin = owner;
+        listener = new HostListener();
+        Bukkit.getPluginManager().registerEvents(listener, owner);
+        rebind(null);
+    }
+
+    /**
+     * Releases the runtime. A hosted runtime is unpublished and its workers
+     * stop once their queued tasks are done; the other copies rebind when the
+     * plugin is disabled.
+     */
+    public static synchronized void unbind() {
+        if (plugin == null) {
+            return;
+        }
+
+        HandlerList.unregisterAll(listener);
+        if (hosted != null) {
+            Bukkit.getServicesManager().unregister(Map.class, hosted);
+            ((ExecutorService) hosted.get(KEY_EXECUTOR)).shutdown();
+            hosted = null;
+        }
+        bound = null;
+        remoteParser = null;
+        listener = null;
+        plugin = null;
+    }
+
+    public static boolean isBound() {
+        return bound != null;
+    }
+
+    /**
+     * Checks whether this copy hosts the runtime.
+     *
+     * @return true if this copy hosts it, false if it is unbound or uses another copy's
+     */
+    public static synchronized boolean isHost() {
+        return hosted != null && bound == hosted;
+    }
+
+    /**
+     * Gets the plugin hosting the runtime.
+     *
+     * @return The host, or null while unbound
+     */
+    public static Plugin getHost() {
+        Map<String, Object> runtime = bound;
+        return runtime == null ? null : (Plugin) runtime.get(KEY_HOST);
+    }
+
+    /**
+     * Gets the shared worker pool.
+     *
+     * @return The pool, or null while unbound
+     */
+    public static ExecutorService getExecutor() {
+        Map<String, Object> runtime = bound;
+        return runtime == null ? null : (ExecutorService) runtime.get(KEY_EXECUTOR);
+    }
+
+    /**
+     * Gets the host's parser when another copy hosts the runtime. The parser
+     * returns null while the host has no parse cache.
+     *
+     * @return The parser, or null if this copy is unbound or is the host
+     */
+    public static Function<String, Component> getRemoteParser() {
+        return remoteParser;
+    }
+
+    /**
+     * Gets a named value shared by every copy, creating it on first use.
+     * The value must only be typed with JDK, Bukkit or Adventure classes.
+     *
+     * @param key The key, prefixed with the feature name to avoid clashes
+     * @param factory Creates the value if no copy did yet
+     * @return The shared value, or a value private to this copy while unbound
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T attachment(String key, Supplier<T> factory) {
+        Map<String, Object> runtime = bound;
+        if (runtime == null) {
+            return factory.get();
+        }
+        ConcurrentMap<String, Object> attachments = (ConcurrentMap<String, Object>) runtime.get(KEY_ATTACHMENTS);
+        return (T) attachments.computeIfAbsent(key, ignored -> factory.get());
+    }
+
+    /**
+     * Binds to the best compatible runtime other than the one of a plugin
+     * being disabled, or hosts one.
+     */
+    @SuppressWarnings("unchecked")
+    private static synchronized void rebind(Plugin disabling) {
+        if (plugin == null) {
+            return;
+        }
+
+        // Resolved here rather than in a static field: Color.parse loads this
+        // class, and LogLevel parses its prefixes while it initializes
+        Logger logger = Log.of("Shared");
+        Map<String, Object> found = find(disabling);
+        if (found != null) {
+            bound = found;
+            remoteParser = (Function<String, Component>) found.get(KEY_PARSER);
+            logger.debug("Bound to the runtime hosted by {}", ((Plugin) found.get(KEY_HOST)).getName());
+            return;
+        }
+
+        if (hosted == null) {
+            hosted = create();
+            Bukkit.getServicesManager().register(Map.class, hosted, plugin, ServicePriority.Normal);
+        }
+        bound = hosted;
+        remoteParser = null;
+        logger.debug("Hosting the shared runtime");
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Map<String, Object> find(Plugin disabling) {
+        Collection<RegisteredServiceProvider<Map>> registrations = Bukkit.getServicesManager()
+                .getRegistrations(Map.class);
+
+        for (RegisteredServiceProvider<Map> registration : registrations) {
+            Map<String, Object> candidate = registration.getProvider();
+            Plugin host = registration.getPlugin();
+            if (candidate == hosted || host == disabling || !host.isEnabled()
+                    || !(candidate.get(KEY_PROTOCOL) instanceof Integer protocol) || protocol != PROTOCOL_VERSION) {
+                continue;
+            }
+            return candidate;
+        }
+        return null;
+    }
+
+    private static Map<String, Object> create() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "JCoreAPI Shared Worker #" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Idle workers exit, a quiet server keeps no threads around
+        executor.allowCoreThreadTimeOut(true);
+
+        Function<String, Component> parser = Color::parseCached;
+        return Map.of(
+                KEY_PROTOCOL, PROTOCOL_VERSION,
+                KEY_HOST, plugin,
+                KEY_EXECUTOR, executor,
+                KEY_PARSER, parser,
+                KEY_ATTACHMENTS, new ConcurrentHashMap<String, Object>());
+    }
+
+    private static final class HostListener implements Listener {
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPluginDisable(PluginDisableEvent event) {
+            Plugin disabled = event.getPlugin();
+            if (disabled != plugin && disabled == getHost()) {
+                rebind(disabled);
+            }
+        }
+    }
+}
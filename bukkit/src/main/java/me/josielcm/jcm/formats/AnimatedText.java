@@ -0,0 +1,260 @@
+package me.josielcm.jcm.formats;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jetbrains.annotations.NotNull;
+
+import me.josielcm.jcm.utils.CacheStats;
+import me.josielcm.jcm.utils.LruCache;
+import net.kyori.adventure.text.Component;
+
+/**
+ * A looping gradient or rainbow animation with precomputed frames.
+ * <p>
+ * Every frame is the same text rendered with the palette shifted by
+ * {@code frame / frameCount}. Frames are built once, either lazily the first
+ * time they are requested or all at once with {@link #precompute(Executor)},
+ * and {@link #frame(long)} is then a single array lookup.
+ * <p>
+ * Instances obtained through {@link #of(String, Palette, int)} are shared:
+ * every caller asking for the same text, palette and frame count gets the
+ * same instance, so a tab header animated for 200 players is computed once.
+ *
+ * <pre>
+ * AnimatedText title = AnimatedText.of("LOBBY", AnimatedText.Palette.gradient(
+ *         Gradient.Interpolation.OKLAB, "#ff5555", "#ffaa00", "#55ffff"), 40);
+ *
+ * // every tick
+ * player.sendPlayerListHeader(title.frame(tick));
+ * </pre>
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class AnimatedText {
+
+    private static final LruCache<Key, AnimatedText> SHARED = new LruCache<>(512);
+
+    private final String text;
+    private final Palette palette;
+    private final int frameCount;
+    private final AtomicReferenceArray<Component> frames;
+
+    private AnimatedText(String text, Palette palette, int frameCount) {
+        this.text = text;
+        this.palette = palette;
+        this.frameCount = frameCount;
+        this.frames = new AtomicReferenceArray<>(frameCount);
+    }
+
+    /**
+     * Gets the shared animation for a text, palette and frame count.
+     *
+     * @param text The text to animate
+     * @param palette The palette to shift across the text
+     * @param frameCount The number of frames in one loop, must be positive
+     * @return The shared animation
+     */
+    public static @NotNull AnimatedText of(@NotNull String text, @NotNull Palette palette, int frameCount) {
+        if (frameCount <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive");
+        }
+
+        return SHARED.get(new Key(text, palette, frameCount),
+                key -> new AnimatedText(key.text(), key.palette(), key.frameCount()));
+    }
+
+    /**
+     * Gets the frame for a tick. Ticks wrap around the frame count, so a
+     * global tick counter can be passed directly.
+     *
+     * @param tick The tick or frame index
+     * @return The frame component
+     */
+    public @NotNull Component frame(long tick) {
+        int index = (int) Math.floorMod(tick, (long) frameCount);
+        Component frame = frames.get(index);
+
+        if (frame == null) {
+            // Rendering is deterministic, a race only builds the same frame twice
+            frame = render(index);
+            frames.lazySet(index, frame);
+        }
+
+        return frame;
+    }
+
+    /**
+     * Builds every missing frame on the given executor.
+     *
+     * @param executor The executor to render on
+     * @return A future completed with this animation once all frames exist
+     */
+    public @NotNull CompletableFuture<AnimatedText> precompute(@NotNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            for (int i = 0; i < frameCount; i++) {
+                frame(i);
+            }
+            return this;
+        }, executor);
+    }
+
+    /**
+     * Builds every missing frame on the common pool.
+     *
+     * @return A future completed with this animation once all frames exist
+     */
+    public @NotNull CompletableFuture<AnimatedText> precompute() {
+        return precompute(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gets the number of frames in one loop.
+     *
+     * @return The frame count
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the animated text.
+     *
+     * @return The text
+     */
+    public @NotNull String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the palette of this animation.
+     *
+     * @return The palette
+     */
+    public @NotNull Palette getPalette() {
+        return palette;
+    }
+
+    /**
+     * Gets the statistics of the shared animation cache.
+     *
+     * @return The cache statistics
+     */
+    public static @NotNull CacheStats getSharedStats() {
+        return SHARED.stats();
+    }
+
+    /**
+     * Drops every shared animation and its frames.
+     */
+    public static void clearShared() {
+        SHARED.clear();
+    }
+
+    private Component render(int index) {
+        return palette.render(text, (float) index / frameCount);
+    }
+
+    /**
+     * Cache key of a shared animation, so a lookup that hits does not
+     * allocate the frame array.
+     */
+    private record Key(String text, Palette palette, int frameCount) {
+    }
+
+    /**
+     * The colors an animation cycles through.
+     */
+    public static final class Palette {
+
+        private final int[] stops;
+        private final Gradient.Interpolation mode;
+        private final float saturation;
+        private final float brightness;
+
+        private Palette(int[] stops, Gradient.Interpolation mode, float saturation, float brightness) {
+            this.stops = stops;
+            this.mode = mode;
+            this.saturation = saturation;
+            this.brightness = brightness;
+        }
+
+        /**
+         * Creates a looping gradient palette.
+         *
+         * @param mode The color space used to blend between stops
+         * @param colors The color stops in hex format (#RRGGBB), at least one
+         * @return The palette
+         */
+        public static @NotNull Palette gradient(@NotNull Gradient.Interpolation mode, @NotNull String... colors) {
+            if (colors.length == 0) {
+                throw new IllegalArgumentException("A gradient needs at least one color");
+            }
+            return new Palette(Gradient.parseStops(colors), mode, 0, 0);
+        }
+
+        /**
+         * Creates a looping gradient palette from packed colors.
+         *
+         * @param mode The color space used to blend between stops
+         * @param stops The color stops as {@code 0xRRGGBB} integers, at least one
+         * @return The palette
+         */
+        public static @NotNull Palette gradient(@NotNull Gradient.Interpolation mode, int @NotNull... stops) {
+            if (stops.length == 0) {
+                throw new IllegalArgumentException("A gradient needs at least one color");
+            }
+            return new Palette(stops.clone(), mode, 0, 0);
+        }
+
+        /**
+         * Creates a rainbow palette.
+         *
+         * @param saturation The color saturation (0-1)
+         * @param brightness The color brightness (0-1)
+         * @return The palette
+         */
+        public static @NotNull Palette rainbow(float saturation, float brightness) {
+            return new Palette(null, null, saturation, brightness);
+        }
+
+        /**
+         * Creates a rainbow palette with default saturation and brightness.
+         *
+         * @return The palette
+         */
+        public static @NotNull Palette rainbow() {
+            return rainbow(0.9f, 1.0f);
+        }
+
+        private Component render(String text, float phase) {
+            if (stops == null) {
+                return Gradient.rainbow(text, saturation, brightness, phase);
+            }
+            return Gradient.shifted(text, stops, mode, phase);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Palette other)) {
+                return false;
+            }
+            return Arrays.equals(stops, other.stops) && mode == other.mode
+                    && Float.compare(saturation, other.saturation) == 0
+                    && Float.compare(brightness, other.brightness) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(mode, saturation, brightness) + Arrays.hashCode(stops);
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package me.josielcm.jcm.formats;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.KeybindComponent;
 import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.TextReplacementConfig;
-import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import me.josielcm.jcm.JCoreAPI;
+import me.josielcm.jcm.metrics.Timer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
+import me.josielcm.jcm.shared.SharedRuntime;
+import me.josielcm.jcm.utils.CacheStats;
+import me.josielcm.jcm.utils.LruCache;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Utility class for color formatting and text manipulation in Minecraft.
@@ -18,11 +29,12 @@ import java.util.Map;
  * <p>
  * Supports:
  * <ul>
- *   <li>MiniMessage format parsing</li>
+ *   <li>MiniMessage format parsing with an optional bounded cache</li>
  *   <li>Placeholder replacement</li>
+ *   <li>Pre-compiled message templates</li>
  *   <li>RGB hex color handling</li>
  *   <li>Legacy color code conversion</li>
- *   <li>Gradient text generation</li>
+ *   <li>Multi-stop gradient and rainbow text generation</li>
  * </ul>
  * 
  * @author JosielCM
@@ -31,6 +43,11 @@ import java.util.Map;
 public class Color {
 
     private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static final Timer PARSE_TIMER = JCoreAPI.getMetrics().timer("color.parse");
+
+    /** Optional cache of parsed strings, null while disabled */
+    private static volatile LruCache<String, Component> parseCache;
     
     /**
      * Private constructor to prevent instantiation of this utility class
@@ -47,18 +64,37 @@ public class Color {
      * @return The parsed component with placeholders replaced
      */
     public static Component parse(@NotNull String message, @NotNull Map<String, Component> placeholders) {
-        // First parse the message with MiniMessage
-        Component finalMessage = MINI_MESSAGE.deserialize(message);
-
-        // Replace each placeholder with its component
-        for (Map.Entry<String, Component> entry : placeholders.entrySet()) {
-            finalMessage = finalMessage.replaceText(TextReplacementConfig.builder()
-                    .matchLiteral(entry.getKey())
-                    .replacement(entry.getValue())
-                    .build());
+        if (placeholders.isEmpty()) {
+            return parse(message);
         }
 
-        return finalMessage;
+        // Split the placeholders out of the tree in a single walk
+        return MessageTemplate.compile(message, placeholders.keySet()).render(placeholders);
+    }
+
+    /**
+     * Compiles a MiniMessage string into a reusable template.
+     * <p>
+     * The string is parsed once; {@code %name%} and {@code {name}} tokens become
+     * slots that are filled on every {@link MessageTemplate#render(Map)} without
+     * parsing again. Compile hot messages once and keep the template around.
+     * 
+     * @param message The message to compile
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(@NotNull String message) {
+        return MessageTemplate.compile(message);
+    }
+
+    /**
+     * Compiles a MiniMessage string into a reusable template using literal placeholder keys.
+     * 
+     * @param message The message to compile
+     * @param keys The literal placeholder keys that become slots
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(@NotNull String message, @NotNull Collection<String> keys) {
+        return MessageTemplate.compile(message, keys);
     }
 
     /**
@@ -68,7 +104,89 @@ public class Color {
      * @return The parsed component
      */
     public static Component parse(@NotNull String message) {
-        return MINI_MESSAGE.deserialize(message);
+        long start = PARSE_TIMER.start();
+        int token = TickProfiler.enter(Area.FORMATTING);
+        try {
+            LruCache<String, Component> cache = parseCache;
+            if (cache != null) {
+                return cache.get(message, MINI_MESSAGE::deserialize);
+            }
+            // Another plugin hosts the shared runtime, use its cache if it has one
+            Function<String, Component> shared = SharedRuntime.getRemoteParser();
+            if (shared != null) {
+                Component cached = shared.apply(message);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            return MINI_MESSAGE.deserialize(message);
+        } finally {
+            TickProfiler.exit(token);
+            PARSE_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Parses a string through the parse cache of this copy, without timing or
+     * profiling. Copies bound to a shared runtime hosted by this one call it
+     * instead of parsing themselves.
+     * 
+     * @param message The message to parse
+     * @return The cached component, or null if the parse cache is disabled
+     */
+    public static @Nullable Component parseCached(@NotNull String message) {
+        LruCache<String, Component> cache = parseCache;
+        return cache != null ? cache.get(message, MINI_MESSAGE::deserialize) : null;
+    }
+
+    /**
+     * Enables the parse cache used by {@link #parse(String)}.
+     * <p>
+     * Parsed components are immutable, so cached results are shared between
+     * callers and threads. Messages built with dynamic values (player names,
+     * numbers) churn the cache; prefer {@link #compile(String)} for those.
+     * Calling this again replaces the cache with an empty one of the new size.
+     * 
+     * @param maximumSize The maximum number of cached messages
+     */
+    public static void enableCache(int maximumSize) {
+        parseCache = new LruCache<>(maximumSize);
+    }
+
+    /**
+     * Disables and drops the parse cache.
+     */
+    public static void disableCache() {
+        parseCache = null;
+    }
+
+    /**
+     * Removes every cached message while keeping the cache enabled.
+     */
+    public static void clearCache() {
+        LruCache<String, Component> cache = parseCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Checks whether the parse cache is enabled.
+     * 
+     * @return true if parsed messages are being cached
+     */
+    public static boolean isCacheEnabled() {
+        return parseCache != null;
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the parse cache.
+     * 
+     * @return The cache statistics, or null if the cache is disabled
+     */
+    public static @Nullable CacheStats getCacheStats() {
+        LruCache<String, Component> cache = parseCache;
+        return cache != null ? cache.stats() : null;
     }
 
     /**
@@ -89,13 +207,12 @@ public class Color {
      * @return The parsed component with placeholders replaced
      */
     public static Component parseWithStringPlaceholders(@NotNull String message, @NotNull Map<String, String> placeholders) {
-        String processed = message;
-        
-        // Replace each placeholder with its string value before parsing
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            processed = processed.replace(entry.getKey(), entry.getValue());
+        if (placeholders.isEmpty()) {
+            return parse(message);
         }
-        
+
+        // Replace every placeholder in a single pass before parsing
+        String processed = KeyReplacer.cached(placeholders.keySet()).replace(message, placeholders);
         return MINI_MESSAGE.deserialize(processed);
     }
     
@@ -106,8 +223,17 @@ public class Color {
      * @return Text in MiniMessage format
      */
     public static String legacyToMiniMessage(@NotNull String legacyText) {
-        Component component = LegacyComponentSerializer.legacySection().deserialize(legacyText);
-        return MINI_MESSAGE.serialize(component);
+        return LegacyTranscoder.section().toMiniMessage(legacyText);
+    }
+
+    /**
+     * Converts many lines of legacy color codes (§) to MiniMessage format.
+     * 
+     * @param legacyLines The lines with legacy color codes
+     * @return The lines in MiniMessage format
+     */
+    public static List<String> legacyToMiniMessage(@NotNull List<String> legacyLines) {
+        return LegacyTranscoder.section().toMiniMessage(legacyLines);
     }
     
     /**
@@ -117,8 +243,17 @@ public class Color {
      * @return Text with legacy color codes
      */
     public static String miniMessageToLegacy(@NotNull String miniMessage) {
-        Component component = MINI_MESSAGE.deserialize(miniMessage);
-        return LegacyComponentSerializer.legacySection().serialize(component);
+        return LegacyTranscoder.section().toLegacy(miniMessage);
+    }
+
+    /**
+     * Converts many lines of MiniMessage format to legacy color codes (§).
+     * 
+     * @param lines The lines in MiniMessage format
+     * @return The lines with legacy color codes
+     */
+    public static List<String> miniMessageToLegacy(@NotNull List<String> lines) {
+        return LegacyTranscoder.section().toLegacy(lines);
     }
     
     /**
@@ -130,31 +265,22 @@ public class Color {
      * @return Component with gradient applied
      */
     public static Component gradient(@NotNull String text, @NotNull String startColor, @NotNull String endColor) {
-        if (text.isEmpty()) {
-            return Component.empty();
-        }
-        
-        // Remove # if present
-        startColor = startColor.startsWith("#") ? startColor.substring(1) : startColor;
-        endColor = endColor.startsWith("#") ? endColor.substring(1) : endColor;
-        
-        // Parse hex colors
-        java.awt.Color start = hexToRgb(startColor);
-        java.awt.Color end = hexToRgb(endColor);
-        
-        if (text.length() == 1) {
-            return Component.text(text).color(TextColor.color(start.getRed(), start.getGreen(), start.getBlue()));
-        }
-        
-        // Build gradient string in MiniMessage format
-        StringBuilder gradientText = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            float ratio = (float) i / (text.length() - 1);
-            java.awt.Color currentColor = interpolateColor(start, end, ratio);
-            gradientText.append("<#").append(rgbToHex(currentColor)).append(">").append(text.charAt(i));
+        return Gradient.apply(text, Gradient.parseStops(startColor, endColor), Gradient.Interpolation.RGB);
+    }
+
+    /**
+     * Applies a gradient across any number of colors to a text.
+     * 
+     * @param text The text to apply gradient to
+     * @param mode The color space used to blend between stops
+     * @param colors The color stops in hex format (#RRGGBB), at least one
+     * @return Component with gradient applied
+     */
+    public static Component gradient(@NotNull String text, @NotNull Gradient.Interpolation mode, @NotNull String... colors) {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("A gradient needs at least one color");
         }
-        
-        return MINI_MESSAGE.deserialize(gradientText.toString());
+        return Gradient.apply(text, Gradient.parseStops(colors), mode);
     }
     
     /**
@@ -166,19 +292,7 @@ public class Color {
      * @return Component with rainbow colors applied
      */
     public static Component rainbow(@NotNull String text, float saturation, float brightness) {
-        if (text.isEmpty()) {
-            return Component.empty();
-        }
-        
-        // Build rainbow string in MiniMessage format
-        StringBuilder rainbowText = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            float hue = (float) i / text.length();
-            java.awt.Color color = java.awt.Color.getHSBColor(hue, saturation, brightness);
-            rainbowText.append("<#").append(rgbToHex(color)).append(">").append(text.charAt(i));
-        }
-        
-        return MINI_MESSAGE.deserialize(rainbowText.toString());
+        return Gradient.rainbow(text, saturation, brightness, 0f);
     }
     
     /**
@@ -210,32 +324,53 @@ public class Color {
      * @return Plain text without formatting
      */
     public static String stripFormatting(@NotNull String text) {
-        // First convert MiniMessage to Component then extract plain text
+        // Skip the tags directly when possible, parse only when the scanner can't predict the text
+        String stripped = TagStripper.strip(text);
+        if (stripped != null) {
+            return stripped;
+        }
+
         Component component = MINI_MESSAGE.deserialize(text);
         return PlainTextComponentSerializer.plainText().serialize(component);
     }
+
+    /**
+     * Extracts the plain text of a component, including translation keys and keybinds.
+     * 
+     * @param component The component to flatten
+     * @return Plain text without formatting
+     */
+    public static String stripFormatting(@NotNull Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    /**
+     * Counts the visible characters of a MiniMessage string, ignoring its tags.
+     * 
+     * @param text The text to measure
+     * @return The number of visible characters (code points)
+     */
+    public static int visibleLength(@NotNull String text) {
+        int length = TagStripper.visibleLength(text);
+        if (length >= 0) {
+            return length;
+        }
+
+        String stripped = stripFormatting(text);
+        return stripped.codePointCount(0, stripped.length());
+    }
     
     /**
      * Creates a centered text component that tries to center text in chat.
+     * Uses the pixel widths of the default font, including bold text.
      * 
      * @param text The text to center
      * @param width The width to center within (default chat width is ~320 pixels)
      * @return Component with centered text
+     * @see TextMetrics
      */
     public static Component center(@NotNull String text, int width) {
-        // Strip formatting to get true length
-        String stripped = stripFormatting(text);
-        int length = stripped.length();
-        
-        // Average character width in pixels (approximation)
-        int charWidth = 6;
-        int textWidth = length * charWidth;
-        
-        // Calculate spaces needed for centering
-        int spaces = Math.max(0, (width - textWidth) / (2 * charWidth));
-        String padding = " ".repeat(spaces);
-        
-        return parse(padding + text);
+        return TextMetrics.center(parse(text), width);
     }
     
     /**
@@ -245,40 +380,7 @@ public class Color {
      * @return Component with centered text
      */
     public static Component center(@NotNull String text) {
-        return center(text, 320);
-    }
-    
-    /**
-     * Helper method to interpolate between two colors.
-     */
-    private static java.awt.Color interpolateColor(java.awt.Color color1, java.awt.Color color2, float ratio) {
-        int red = (int) (color1.getRed() * (1 - ratio) + color2.getRed() * ratio);
-        int green = (int) (color1.getGreen() * (1 - ratio) + color2.getGreen() * ratio);
-        int blue = (int) (color1.getBlue() * (1 - ratio) + color2.getBlue() * ratio);
-        return new java.awt.Color(red, green, blue);
-    }
-    
-    /**
-     * Helper method to convert hex string to Color.
-     */
-    private static java.awt.Color hexToRgb(String hexColor) {
-        try {
-            return new java.awt.Color(
-                Integer.parseInt(hexColor.substring(0, 2), 16),
-                Integer.parseInt(hexColor.substring(2, 4), 16),
-                Integer.parseInt(hexColor.substring(4, 6), 16)
-            );
-        } catch (Exception e) {
-            // Default to white on error
-            return java.awt.Color.WHITE;
-        }
-    }
-    
-    /**
-     * Helper method to convert Color to hex string.
-     */
-    private static String rgbToHex(java.awt.Color color) {
-        return String.format("%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+        return center(text, TextMetrics.CHAT_WIDTH);
     }
     
     /**
@@ -298,6 +400,11 @@ public class Color {
         private void serialize(Component component, StringBuilder builder) {
             if (component instanceof TextComponent textComponent) {
                 builder.append(textComponent.content());
+            } else if (component instanceof TranslatableComponent translatable) {
+                // Without a client locale the fallback (or the key itself) is the best plain text
+                builder.append(translatable.fallback() != null ? translatable.fallback() : translatable.key());
+            } else if (component instanceof KeybindComponent keybind) {
+                builder.append(keybind.keybind());
             }
             
             for (Component child : component.children()) {
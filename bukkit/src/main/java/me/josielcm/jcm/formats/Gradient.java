@@ -0,0 +1,390 @@
+package me.josielcm.jcm.formats;
+
+import org.jetbrains.annotations.NotNull;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.TextColor;
+
+/**
+ * Gradient and rainbow builders working on packed {@code 0xRRGGBB} integers.
+ * <p>
+ * Components are assembled directly as colored text children: no intermediate
+ * MiniMessage string is built and parsed back, and {@code java.awt} is never
+ * loaded. Consecutive characters that end up with the same color are merged
+ * into a single child.
+ * <p>
+ * Gradients accept any number of color stops and can interpolate in RGB, HSV
+ * (shortest hue path) or OKLab space.
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class Gradient {
+
+    /** Color used when a hex string cannot be parsed */
+    public static final int WHITE = 0xFFFFFF;
+
+    /**
+     * Color space used to blend between two stops.
+     */
+    public enum Interpolation {
+        /** Straight per-channel blend, the classic MiniMessage look */
+        RGB,
+        /** Blend hue, saturation and value, going around the shortest hue arc */
+        HSV,
+        /** Perceptually uniform blend, avoids the muddy middle of RGB gradients */
+        OKLAB
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class
+     */
+    private Gradient() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Applies a gradient across the given stops to a text.
+     * The first character gets the first stop and the last one the last stop.
+     *
+     * @param text The text to color
+     * @param stops The color stops as {@code 0xRRGGBB} integers, at least one
+     * @param mode The interpolation mode
+     * @return Component with the gradient applied
+     */
+    public static @NotNull Component apply(@NotNull String text, int @NotNull [] stops, @NotNull Interpolation mode) {
+        int length = text.codePointCount(0, text.length());
+        if (length == 0) {
+            return Component.empty();
+        }
+
+        ColorRun run = new ColorRun(text.length());
+        int index = 0;
+        for (int offset = 0; offset < text.length(); index++) {
+            int codePoint = text.codePointAt(offset);
+            float ratio = length == 1 ? 0f : (float) index / (length - 1);
+            run.append(codePoint, sample(stops, ratio, mode));
+            offset += Character.charCount(codePoint);
+        }
+
+        return run.build();
+    }
+
+    /**
+     * Applies a looping gradient shifted by a phase, for animations.
+     * The palette wraps from the last stop back to the first so every phase
+     * produces a seamless gradient.
+     *
+     * @param text The text to color
+     * @param stops The color stops as {@code 0xRRGGBB} integers, at least one
+     * @param mode The interpolation mode
+     * @param phase The shift in the range 0-1 (values outside wrap around)
+     * @return Component with the shifted gradient applied
+     */
+    public static @NotNull Component shifted(@NotNull String text, int @NotNull [] stops, @NotNull Interpolation mode,
+            float phase) {
+        int length = text.codePointCount(0, text.length());
+        if (length == 0) {
+            return Component.empty();
+        }
+
+        ColorRun run = new ColorRun(text.length());
+        int index = 0;
+        for (int offset = 0; offset < text.length(); index++) {
+            int codePoint = text.codePointAt(offset);
+            run.append(codePoint, sampleCyclic(stops, (float) index / length + phase, mode));
+            offset += Character.charCount(codePoint);
+        }
+
+        return run.build();
+    }
+
+    /**
+     * Applies a rainbow across a text.
+     *
+     * @param text The text to color
+     * @param saturation The color saturation (0-1)
+     * @param brightness The color brightness (0-1)
+     * @param phase The hue shift in the range 0-1 (values outside wrap around)
+     * @return Component with rainbow colors applied
+     */
+    public static @NotNull Component rainbow(@NotNull String text, float saturation, float brightness, float phase) {
+        int length = text.codePointCount(0, text.length());
+        if (length == 0) {
+            return Component.empty();
+        }
+
+        ColorRun run = new ColorRun(text.length());
+        int index = 0;
+        for (int offset = 0; offset < text.length(); index++) {
+            int codePoint = text.codePointAt(offset);
+            run.append(codePoint, hsvToRgb((float) index / length + phase, saturation, brightness));
+            offset += Character.charCount(codePoint);
+        }
+
+        return run.build();
+    }
+
+    /**
+     * Samples a multi-stop gradient.
+     *
+     * @param stops The color stops, at least one
+     * @param ratio The position in the range 0-1
+     * @param mode The interpolation mode
+     * @return The packed color at that position
+     */
+    public static int sample(int @NotNull [] stops, float ratio, @NotNull Interpolation mode) {
+        if (stops.length == 1 || ratio <= 0f) {
+            return stops[0];
+        }
+        if (ratio >= 1f) {
+            return stops[stops.length - 1];
+        }
+
+        float scaled = ratio * (stops.length - 1);
+        int segment = (int) scaled;
+        return interpolate(stops[segment], stops[segment + 1], scaled - segment, mode);
+    }
+
+    /**
+     * Samples a looping gradient where the last stop blends back into the first.
+     *
+     * @param stops The color stops, at least one
+     * @param ratio The position, wrapped into the range 0-1
+     * @param mode The interpolation mode
+     * @return The packed color at that position
+     */
+    public static int sampleCyclic(int @NotNull [] stops, float ratio, @NotNull Interpolation mode) {
+        if (stops.length == 1) {
+            return stops[0];
+        }
+
+        float scaled = wrap(ratio) * stops.length;
+        int segment = Math.min((int) scaled, stops.length - 1);
+        int next = segment + 1 == stops.length ? 0 : segment + 1;
+        return interpolate(stops[segment], stops[next], scaled - segment, mode);
+    }
+
+    /**
+     * Blends two packed colors.
+     *
+     * @param from The start color
+     * @param to The end color
+     * @param ratio The blend amount in the range 0-1
+     * @param mode The interpolation mode
+     * @return The blended packed color
+     */
+    public static int interpolate(int from, int to, float ratio, @NotNull Interpolation mode) {
+        return switch (mode) {
+            case RGB -> interpolateRgb(from, to, ratio);
+            case HSV -> interpolateHsv(from, to, ratio);
+            case OKLAB -> interpolateOklab(from, to, ratio);
+        };
+    }
+
+    /**
+     * Converts hue, saturation and brightness to a packed color, matching
+     * {@code java.awt.Color.HSBtoRGB}.
+     *
+     * @param hue The hue, wrapped into the range 0-1
+     * @param saturation The saturation (0-1)
+     * @param brightness The brightness (0-1)
+     * @return The packed color
+     */
+    public static int hsvToRgb(float hue, float saturation, float brightness) {
+        int v = (int) (brightness * 255f + 0.5f);
+        if (saturation == 0) {
+            return (v << 16) | (v << 8) | v;
+        }
+
+        float h = wrap(hue) * 6f;
+        float f = h - (float) Math.floor(h);
+        int p = (int) (brightness * (1f - saturation) * 255f + 0.5f);
+        int q = (int) (brightness * (1f - saturation * f) * 255f + 0.5f);
+        int t = (int) (brightness * (1f - saturation * (1f - f)) * 255f + 0.5f);
+
+        return switch ((int) h) {
+            case 0 -> (v << 16) | (t << 8) | p;
+            case 1 -> (q << 16) | (v << 8) | p;
+            case 2 -> (p << 16) | (v << 8) | t;
+            case 3 -> (p << 16) | (q << 8) | v;
+            case 4 -> (t << 16) | (p << 8) | v;
+            default -> (v << 16) | (p << 8) | q;
+        };
+    }
+
+    /**
+     * Parses a hex color, with or without a leading {@code #}.
+     *
+     * @param hex The hex string (RRGGBB)
+     * @return The packed color, or {@link #WHITE} if it cannot be parsed
+     */
+    public static int parseHex(@NotNull String hex) {
+        int start = hex.startsWith("#") ? 1 : 0;
+        if (hex.length() - start < 6) {
+            return WHITE;
+        }
+
+        int rgb = 0;
+        for (int i = start; i < start + 6; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                return WHITE;
+            }
+            rgb = (rgb << 4) | digit;
+        }
+        return rgb;
+    }
+
+    /**
+     * Parses several hex colors into a stop array.
+     *
+     * @param hexColors The hex strings
+     * @return The packed colors
+     */
+    public static int @NotNull [] parseStops(@NotNull String... hexColors) {
+        int[] stops = new int[hexColors.length];
+        for (int i = 0; i < hexColors.length; i++) {
+            stops[i] = parseHex(hexColors[i]);
+        }
+        return stops;
+    }
+
+    private static int interpolateRgb(int from, int to, float ratio) {
+        int red = (int) (((from >> 16) & 0xFF) * (1 - ratio) + ((to >> 16) & 0xFF) * ratio);
+        int green = (int) (((from >> 8) & 0xFF) * (1 - ratio) + ((to >> 8) & 0xFF) * ratio);
+        int blue = (int) ((from & 0xFF) * (1 - ratio) + (to & 0xFF) * ratio);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static int interpolateHsv(int from, int to, float ratio) {
+        float[] a = rgbToHsv(from);
+        float[] b = rgbToHsv(to);
+
+        // A gray stop has no meaningful hue, borrow the other one
+        if (a[1] == 0) {
+            a[0] = b[0];
+        } else if (b[1] == 0) {
+            b[0] = a[0];
+        }
+
+        float delta = b[0] - a[0];
+        if (delta > 0.5f) {
+            delta -= 1f;
+        } else if (delta < -0.5f) {
+            delta += 1f;
+        }
+
+        return hsvToRgb(a[0] + delta * ratio, a[1] + (b[1] - a[1]) * ratio, a[2] + (b[2] - a[2]) * ratio);
+    }
+
+    private static float[] rgbToHsv(int rgb) {
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        float range = max - min;
+
+        float hue = 0;
+        if (range > 0) {
+            if (max == r) {
+                hue = ((g - b) / range) / 6f;
+            } else if (max == g) {
+                hue = (2f + (b - r) / range) / 6f;
+            } else {
+                hue = (4f + (r - g) / range) / 6f;
+            }
+        }
+
+        return new float[] { wrap(hue), max == 0 ? 0 : range / max, max / 255f };
+    }
+
+    private static int interpolateOklab(int from, int to, float ratio) {
+        double[] a = toOklab(from);
+        double[] b = toOklab(to);
+        return fromOklab(
+                a[0] + (b[0] - a[0]) * ratio,
+                a[1] + (b[1] - a[1]) * ratio,
+                a[2] + (b[2] - a[2]) * ratio);
+    }
+
+    private static double[] toOklab(int rgb) {
+        double r = toLinear((rgb >> 16) & 0xFF);
+        double g = toLinear((rgb >> 8) & 0xFF);
+        double b = toLinear(rgb & 0xFF);
+
+        double l = Math.cbrt(0.4122214708 * r + 0.5363325363 * g + 0.0514459929 * b);
+        double m = Math.cbrt(0.2119034982 * r + 0.6806995451 * g + 0.1073969566 * b);
+        double s = Math.cbrt(0.0883024619 * r + 0.2817188376 * g + 0.6299787005 * b);
+
+        return new double[] {
+                0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s,
+                1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s,
+                0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s
+        };
+    }
+
+    private static int fromOklab(double lightness, double a, double b) {
+        double l = lightness + 0.3963377774 * a + 0.2158037573 * b;
+        double m = lightness - 0.1055613458 * a - 0.0638541728 * b;
+        double s = lightness - 0.0894841775 * a - 1.2914855480 * b;
+        l = l * l * l;
+        m = m * m * m;
+        s = s * s * s;
+
+        int red = fromLinear(4.0767416621 * l - 3.3077115913 * m + 0.2309699292 * s);
+        int green = fromLinear(-1.2684380046 * l + 2.6097574011 * m - 0.3413193965 * s);
+        int blue = fromLinear(-0.0041960863 * l - 0.7034186147 * m + 1.7076147010 * s);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static double toLinear(int channel) {
+        double c = channel / 255.0;
+        return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static int fromLinear(double linear) {
+        double c = linear <= 0.0031308 ? 12.92 * linear : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+        return Math.max(0, Math.min(255, (int) Math.round(c * 255)));
+    }
+
+    private static float wrap(float value) {
+        return value - (float) Math.floor(value);
+    }
+
+    /**
+     * Collects characters into text children, merging runs of the same color.
+     */
+    private static final class ColorRun {
+        private final TextComponent.Builder builder = Component.text();
+        private final StringBuilder buffer;
+        private int color = -1;
+
+        ColorRun(int capacity) {
+            this.buffer = new StringBuilder(capacity);
+        }
+
+        void append(int codePoint, int rgb) {
+            if (rgb != color && buffer.length() > 0) {
+                flush();
+            }
+            color = rgb;
+            buffer.appendCodePoint(codePoint);
+        }
+
+        Component build() {
+            flush();
+            return builder.build();
+        }
+
+        private void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            builder.append(Component.text(buffer.toString(), TextColor.color(color)));
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package me.josielcm.jcm.formats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import me.josielcm.jcm.utils.LruCache;
+
+/**
+ * Replaces many literal keys in a single pass over a string.
+ * <p>
+ * The key set is compiled once into a character trie. Scanning walks the
+ * input once, and at each position follows the trie to find the longest key
+ * starting there (leftmost-longest, like applying the keys longest first).
+ * Replacements are written into a per-thread buffer that is reused between
+ * calls, and a string with no key at all is returned as is without copying.
+ * <p>
+ * Replaced values are never rescanned, so a value containing another key is
+ * inserted literally.
+ *
+ * <pre>
+ * KeyReplacer replacer = KeyReplacer.of(List.of("%player%", "%coins%"));
+ * String line = replacer.replace("%player% has %coins% coins", Map.of("%player%", "Steve", "%coins%", "5"));
+ * </pre>
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class KeyReplacer {
+
+    private static final LruCache<Set<String>, KeyReplacer> COMPILED = new LruCache<>(256);
+
+    /** Buffers above this size are not kept between calls */
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final Node root;
+    private final Set<String> keys;
+
+    private KeyReplacer(Node root, Set<String> keys) {
+        this.root = root;
+        this.keys = keys;
+    }
+
+    /**
+     * Compiles a replacer for the given keys. Empty and null keys are ignored.
+     *
+     * @param keys The literal keys to match
+     * @return The compiled replacer
+     */
+    public static @NotNull KeyReplacer of(@NotNull Collection<String> keys) {
+        NodeBuilder builder = new NodeBuilder();
+        List<String> accepted = new ArrayList<>(keys.size());
+
+        for (String key : keys) {
+            if (key == null || key.isEmpty()) {
+                continue;
+            }
+            accepted.add(key);
+
+            NodeBuilder node = builder;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+            }
+            node.key = key;
+        }
+
+        return new KeyReplacer(builder.build(), Set.copyOf(accepted));
+    }
+
+    /**
+     * Gets a compiled replacer for a key set, reusing a previous compilation
+     * of an equal set. Useful when the same placeholder map shape is applied
+     * over and over.
+     *
+     * @param keys The literal keys to match
+     * @return The compiled replacer
+     */
+    public static @NotNull KeyReplacer cached(@NotNull Set<String> keys) {
+        KeyReplacer replacer = COMPILED.getIfPresent(keys);
+        if (replacer == null) {
+            replacer = of(keys);
+            // Never keep the caller's set, it may be a live map view
+            COMPILED.put(Set.copyOf(keys), replacer);
+        }
+        return replacer;
+    }
+
+    /**
+     * Replaces every key with its value from the map. Keys missing from the
+     * map, or mapped to null, are left untouched.
+     *
+     * @param text The text to process
+     * @param values Map of keys to their replacements
+     * @return The processed text
+     */
+    public @NotNull String replace(@NotNull String text, @NotNull Map<String, String> values) {
+        return replace(text, values::get);
+    }
+
+    /**
+     * Replaces every key with the value given by a resolver. Keys resolved to
+     * null are left untouched.
+     *
+     * @param text The text to process
+     * @param resolver Function that gives the replacement for a key
+     * @return The processed text
+     */
+    public @NotNull String replace(@NotNull String text, @NotNull Function<String, String> resolver) {
+        int first = indexOfKey(text, 0);
+        if (first < 0) {
+            return text;
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        try {
+            replace(text, first, resolver, buffer);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Replaces every key, appending the result to the given builder.
+     *
+     * @param text The text to process
+     * @param resolver Function that gives the replacement for a key
+     * @param out The builder to append to
+     */
+    public void replace(@NotNull String text, @NotNull Function<String, String> resolver, @NotNull StringBuilder out) {
+        int first = indexOfKey(text, 0);
+        if (first < 0) {
+            out.append(text);
+            return;
+        }
+        replace(text, first, resolver, out);
+    }
+
+    /**
+     * Checks whether the text contains at least one key.
+     *
+     * @param text The text to check
+     * @return true if any key occurs in the text
+     */
+    public boolean containsAny(@NotNull String text) {
+        return indexOfKey(text, 0) >= 0;
+    }
+
+    /**
+     * Gets the keys this replacer matches.
+     *
+     * @return An unmodifiable set of keys
+     */
+    public @NotNull Set<String> getKeys() {
+        return keys;
+    }
+
+    private void replace(String text, int position, Function<String, String> resolver, StringBuilder out) {
+        int last = 0;
+        int length = text.length();
+
+        while (position < length) {
+            String key = match(text, position);
+            String value = key != null ? resolver.apply(key) : null;
+
+            if (value == null) {
+                position++;
+                continue;
+            }
+
+            out.append(text, last, position).append(value);
+            position += key.length();
+            last = position;
+        }
+
+        out.append(text, last, length);
+    }
+
+    private int indexOfKey(String text, int from) {
+        if (root.labels.length == 0) {
+            return -1;
+        }
+        for (int i = from; i < text.length(); i++) {
+            if (root.next(text.charAt(i)) != null && match(text, i) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The longest key starting at the position, or null
+     */
+    private @Nullable String match(String text, int position) {
+        Node node = root;
+        String longest = null;
+
+        for (int i = position; i < text.length(); i++) {
+            node = node.next(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.key != null) {
+                longest = node.key;
+            }
+        }
+
+        return longest;
+    }
+
+    /**
+     * Immutable trie node with sorted edge labels.
+     */
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final String key;
+
+        Node(char[] labels, Node[] children, String key) {
+            this.labels = labels;
+            this.children = children;
+            this.key = key;
+        }
+
+        Node next(char c) {
+            if (labels.length < 8) {
+                for (int i = 0; i < labels.length; i++) {
+                    if (labels[i] == c) {
+                        return children[i];
+                    }
+                }
+                return null;
+            }
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /**
+     * Mutable trie node used while compiling.
+     */
+    private static final class NodeBuilder {
+        private final List<Character> labels = new ArrayList<>(2);
+        private final List<NodeBuilder> children = new ArrayList<>(2);
+        private String key;
+
+        NodeBuilder child(char c) {
+            int index = labels.indexOf(c);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            NodeBuilder child = new NodeBuilder();
+            labels.add(c);
+            children.add(child);
+            return child;
+        }
+
+        Node build() {
+            Integer[] order = new Integer[labels.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Character.compare(labels.get(a), labels.get(b)));
+
+            char[] sortedLabels = new char[order.length];
+            Node[] sortedChildren = new Node[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedLabels[i] = labels.get(order[i]);
+                sortedChildren[i] = children.get(order[i]).build();
+            }
+
+            return new Node(sortedLabels, sortedChildren, key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeyReplacer" + keys;
+    }
+}
@@ -0,0 +1,595 @@
+package me.josielcm.jcm.formats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+/**
+ * Converts between legacy color codes and MiniMessage tags with a single
+ * streaming pass, without building a component tree in between.
+ * <p>
+ * Both directions track the pending style (color plus decorations) and only
+ * write codes or tags right before visible text, when the style actually
+ * changed, so redundant codes like {@code §l§c} collapse the same way the
+ * component serializers collapse them.
+ * <p>
+ * Legacy to MiniMessage understands the 16 colors, the 5 decorations,
+ * {@code r}, and hex colors written either as {@code &#rrggbb} or as
+ * {@code §x§r§r§g§g§b§b}. MiniMessage to legacy understands colors,
+ * decorations (including negated ones), {@code <reset>} and closing tags.
+ * Anything else (gradients, hover, click, content tags...) has no direct
+ * legacy form, so those strings go through the component serializers.
+ *
+ * <pre>
+ * String mini = LegacyTranscoder.ampersand().toMiniMessage("&amp;aHello &amp;#ff8800world");
+ * String legacy = LegacyTranscoder.section().toLegacy("&lt;red&gt;Hello &lt;b&gt;world");
+ * </pre>
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class LegacyTranscoder {
+
+    private static final char SECTION_CHAR = '§';
+    private static final char AMPERSAND_CHAR = '&';
+
+    private static final String[] COLOR_NAMES = {
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white"
+    };
+
+    private static final NamedTextColor[] NAMED_COLORS = {
+            NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+            NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+            NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+            NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+
+    /** Decorations in legacy code order: k, l, m, n, o */
+    private static final String[] DECORATION_NAMES = {
+            "obfuscated", "bold", "strikethrough", "underlined", "italic"
+    };
+
+    private static final String LEGACY_CODES = "0123456789abcdef";
+    private static final String DECORATION_CODES = "klmno";
+
+    /** No color set */
+    private static final int NO_COLOR = -1;
+
+    /** Flag marking a color value as packed RGB instead of a named color index */
+    private static final int HEX_FLAG = 0x1000000;
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static final LegacyTranscoder SECTION = new LegacyTranscoder(SECTION_CHAR, false);
+    private static final LegacyTranscoder AMPERSAND = new LegacyTranscoder(AMPERSAND_CHAR, true);
+
+    private final char character;
+    private final boolean hexColors;
+    private final LegacyComponentSerializer fallback;
+
+    private LegacyTranscoder(char character, boolean hexColors) {
+        this.character = character;
+        this.hexColors = hexColors;
+
+        LegacyComponentSerializer.Builder builder = LegacyComponentSerializer.builder().character(character);
+        if (hexColors) {
+            builder.hexColors();
+            if (character == SECTION_CHAR) {
+                builder.useUnusualXRepeatedCharacterHexFormat();
+            }
+        }
+        this.fallback = builder.build();
+    }
+
+    /**
+     * Gets the transcoder for section ({@code §}) codes. Hex colors are
+     * downsampled to the nearest named color when writing legacy text, like
+     * {@link LegacyComponentSerializer#legacySection()} does.
+     *
+     * @return The section transcoder
+     */
+    public static @NotNull LegacyTranscoder section() {
+        return SECTION;
+    }
+
+    /**
+     * Gets the transcoder for ampersand ({@code &}) codes, as usually found in
+     * configuration files. Section codes are accepted as well when reading,
+     * and hex colors are written as {@code &#rrggbb}.
+     *
+     * @return The ampersand transcoder
+     */
+    public static @NotNull LegacyTranscoder ampersand() {
+        return AMPERSAND;
+    }
+
+    /**
+     * Gets a copy of this transcoder that writes hex colors instead of
+     * downsampling them, or the other way around.
+     *
+     * @param hexColors Whether hex colors are written when converting to legacy
+     * @return The transcoder
+     */
+    public @NotNull LegacyTranscoder hexColors(boolean hexColors) {
+        if (hexColors == this.hexColors) {
+            return this;
+        }
+        return new LegacyTranscoder(character, hexColors);
+    }
+
+    /**
+     * Converts legacy color codes to MiniMessage format.
+     *
+     * @param legacy The text with legacy color codes
+     * @return Text in MiniMessage format
+     */
+    public @NotNull String toMiniMessage(@NotNull String legacy) {
+        if (!hasCodeChar(legacy) && legacy.indexOf('<') < 0 && legacy.indexOf('\\') < 0) {
+            return legacy;
+        }
+
+        StringBuilder out = new StringBuilder(legacy.length() + 16);
+        toMiniMessage(legacy, out);
+        return out.toString();
+    }
+
+    /**
+     * Converts many lines of legacy color codes to MiniMessage format.
+     *
+     * @param lines The lines with legacy color codes
+     * @return The lines in MiniMessage format
+     */
+    public @NotNull List<String> toMiniMessage(@NotNull List<String> lines) {
+        List<String> result = new ArrayList<>(lines.size());
+        StringBuilder out = new StringBuilder(64);
+
+        for (String line : lines) {
+            out.setLength(0);
+            toMiniMessage(line, out);
+            result.add(out.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts MiniMessage format to legacy color codes.
+     *
+     * @param miniMessage The text in MiniMessage format
+     * @return Text with legacy color codes
+     */
+    public @NotNull String toLegacy(@NotNull String miniMessage) {
+        if (miniMessage.indexOf('<') < 0 && miniMessage.indexOf('\\') < 0) {
+            return miniMessage;
+        }
+
+        StringBuilder out = new StringBuilder(miniMessage.length());
+        return toLegacy(miniMessage, out) ? out.toString() : toLegacyFallback(miniMessage);
+    }
+
+    /**
+     * Converts many lines of MiniMessage format to legacy color codes.
+     *
+     * @param lines The lines in MiniMessage format
+     * @return The lines with legacy color codes
+     */
+    public @NotNull List<String> toLegacy(@NotNull List<String> lines) {
+        List<String> result = new ArrayList<>(lines.size());
+        StringBuilder out = new StringBuilder(64);
+
+        for (String line : lines) {
+            out.setLength(0);
+            result.add(toLegacy(line, out) ? out.toString() : toLegacyFallback(line));
+        }
+
+        return result;
+    }
+
+    private String toLegacyFallback(String miniMessage) {
+        return fallback.serialize(MINI_MESSAGE.deserialize(miniMessage));
+    }
+
+    // Legacy -> MiniMessage
+
+    private void toMiniMessage(String legacy, StringBuilder out) {
+        int length = legacy.length();
+        int color = NO_COLOR;
+        int decorations = 0;
+        int writtenColor = NO_COLOR;
+        int writtenDecorations = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = legacy.charAt(i);
+
+            if (isCodeChar(c) && i + 1 < length) {
+                char code = Character.toLowerCase(legacy.charAt(i + 1));
+                int hex;
+
+                if (code == '#' && (hex = readHex(legacy, i + 2, 1)) >= 0) {
+                    color = HEX_FLAG | hex;
+                    decorations = 0;
+                    i += 7;
+                    continue;
+                }
+                if (code == 'x' && (hex = readHex(legacy, i + 2, 2)) >= 0) {
+                    color = HEX_FLAG | hex;
+                    decorations = 0;
+                    i += 13;
+                    continue;
+                }
+
+                int index = LEGACY_CODES.indexOf(code);
+                if (index >= 0) {
+                    color = index;
+                    decorations = 0;
+                    i++;
+                    continue;
+                }
+
+                index = DECORATION_CODES.indexOf(code);
+                if (index >= 0) {
+                    decorations |= 1 << index;
+                    i++;
+                    continue;
+                }
+
+                if (code == 'r') {
+                    color = NO_COLOR;
+                    decorations = 0;
+                    i++;
+                    continue;
+                }
+            }
+
+            if (color != writtenColor || decorations != writtenDecorations) {
+                // Dropping a color or a decoration needs a reset, MiniMessage tags only stack
+                if ((writtenDecorations & ~decorations) != 0 || (color == NO_COLOR && writtenColor != NO_COLOR)) {
+                    out.append("<reset>");
+                    writtenColor = NO_COLOR;
+                    writtenDecorations = 0;
+                }
+                if (color != writtenColor) {
+                    appendColorTag(out, color);
+                    writtenColor = color;
+                }
+                appendDecorationTags(out, decorations & ~writtenDecorations);
+                writtenDecorations = decorations;
+            }
+
+            if (c == '<' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+    }
+
+    private static void appendColorTag(StringBuilder out, int color) {
+        out.append('<');
+        if ((color & HEX_FLAG) != 0) {
+            appendHex(out.append('#'), color & 0xFFFFFF);
+        } else {
+            out.append(COLOR_NAMES[color]);
+        }
+        out.append('>');
+    }
+
+    private static void appendDecorationTags(StringBuilder out, int decorations) {
+        for (int i = 0; i < DECORATION_NAMES.length; i++) {
+            if ((decorations & (1 << i)) != 0) {
+                out.append('<').append(DECORATION_NAMES[i]).append('>');
+            }
+        }
+    }
+
+    /**
+     * Reads six hex digits, each preceded by a code character when {@code stride} is 2.
+     *
+     * @return The packed RGB value, or -1 if the digits are not there
+     */
+    private int readHex(String text, int start, int stride) {
+        if (start + 6 * stride > text.length()) {
+            return -1;
+        }
+
+        int rgb = 0;
+        for (int i = 0; i < 6; i++) {
+            int position = start + i * stride;
+            if (stride == 2 && !isCodeChar(text.charAt(position))) {
+                return -1;
+            }
+            int digit = Character.digit(text.charAt(position + stride - 1), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            rgb = (rgb << 4) | digit;
+        }
+        return rgb;
+    }
+
+    private boolean isCodeChar(char c) {
+        return c == character || c == SECTION_CHAR;
+    }
+
+    private boolean hasCodeChar(String text) {
+        return text.indexOf(character) >= 0 || text.indexOf(SECTION_CHAR) >= 0;
+    }
+
+    // MiniMessage -> legacy
+
+    /**
+     * Streams the MiniMessage string into legacy codes.
+     *
+     * @return false if the string uses tags without a legacy form and needs the component path
+     */
+    private boolean toLegacy(String text, StringBuilder out) {
+        StyleStack stack = new StyleStack();
+        int length = text.length();
+        int writtenColor = NO_COLOR;
+        int writtenDecorations = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (c == '\\' && i + 1 < length && (text.charAt(i + 1) == '<' || text.charAt(i + 1) == '\\')) {
+                c = text.charAt(++i);
+            } else if (c == '<') {
+                int end = tagEnd(text, i);
+                if (end == -2) {
+                    return false;
+                }
+                if (end > 0) {
+                    if (!applyTag(text, i + 1, end, stack)) {
+                        return false;
+                    }
+                    i = end;
+                    continue;
+                }
+                // The parser reads escapes differently after a stray bracket
+                if (text.indexOf("\\\\", i) >= 0) {
+                    return false;
+                }
+            }
+
+            int color = stack.color();
+            int decorations = stack.decorations();
+            if (color != writtenColor || decorations != writtenDecorations) {
+                // A legacy color code clears decorations, so any drop restarts from the color
+                if ((writtenDecorations & ~decorations) != 0 || color != writtenColor) {
+                    if (color == NO_COLOR) {
+                        out.append(character).append('r');
+                    } else {
+                        appendColorCode(out, color);
+                    }
+                    writtenDecorations = 0;
+                }
+                writtenColor = color;
+                for (int d = 0; d < DECORATION_CODES.length(); d++) {
+                    if ((decorations & ~writtenDecorations & (1 << d)) != 0) {
+                        out.append(character).append(DECORATION_CODES.charAt(d));
+                    }
+                }
+                writtenDecorations = decorations;
+            }
+
+            out.append(c);
+        }
+
+        return true;
+    }
+
+    private void appendColorCode(StringBuilder out, int color) {
+        if ((color & HEX_FLAG) == 0) {
+            out.append(character).append(LEGACY_CODES.charAt(color));
+            return;
+        }
+
+        int rgb = color & 0xFFFFFF;
+        if (character == SECTION_CHAR) {
+            out.append(character).append('x');
+            for (int shift = 20; shift >= 0; shift -= 4) {
+                out.append(character).append(Character.forDigit((rgb >> shift) & 0xF, 16));
+            }
+        } else {
+            appendHex(out.append(character).append('#'), rgb);
+        }
+    }
+
+    /**
+     * Applies the tag between {@code from} (after {@code <}) and {@code to} (the {@code >}).
+     *
+     * @return false if the tag has no legacy form
+     */
+    private boolean applyTag(String text, int from, int to, StyleStack stack) {
+        boolean closing = text.charAt(from) == '/';
+        boolean negated = !closing && text.charAt(from) == '!';
+        int nameStart = closing || negated ? from + 1 : from;
+
+        int colon = text.indexOf(':', nameStart);
+        int nameEnd = colon >= 0 && colon < to ? colon : to;
+        if (nameEnd == nameStart) {
+            return false;
+        }
+
+        String name = text.substring(nameStart, nameEnd);
+        String argument = nameEnd < to ? text.substring(nameEnd + 1, to) : null;
+
+        if (closing) {
+            return argument == null && stack.close(name);
+        }
+
+        int decoration = decorationIndex(name);
+        if (decoration >= 0) {
+            if (argument != null) {
+                return false;
+            }
+            String key = negated ? "!" + name : name;
+            int mask = 1 << decoration;
+            stack.push(key, stack.color(), negated ? stack.decorations() & ~mask : stack.decorations() | mask);
+            return true;
+        }
+
+        if (negated) {
+            return false;
+        }
+
+        if (name.equals("reset")) {
+            if (argument != null) {
+                return false;
+            }
+            stack.reset();
+            return true;
+        }
+
+        String colorName = name;
+        if (name.equals("color") || name.equals("colour") || name.equals("c")) {
+            if (argument == null) {
+                return false;
+            }
+            colorName = argument;
+        } else if (argument != null) {
+            return false;
+        }
+
+        int color = resolveColor(colorName);
+        if (color == NO_COLOR) {
+            return false;
+        }
+        // Legacy codes cannot keep decorations across a color, but MiniMessage can
+        stack.push(name, color, stack.decorations());
+        return true;
+    }
+
+    private int resolveColor(String name) {
+        if (name.length() == 7 && name.charAt(0) == '#') {
+            int rgb = 0;
+            for (int i = 1; i < 7; i++) {
+                int digit = Character.digit(name.charAt(i), 16);
+                if (digit < 0) {
+                    return NO_COLOR;
+                }
+                rgb = (rgb << 4) | digit;
+            }
+            if (hexColors) {
+                return HEX_FLAG | rgb;
+            }
+            NamedTextColor nearest = NamedTextColor.nearestTo(TextColor.color(rgb));
+            for (int i = 0; i < NAMED_COLORS.length; i++) {
+                if (NAMED_COLORS[i] == nearest) {
+                    return i;
+                }
+            }
+            return NO_COLOR;
+        }
+
+        String normalized = name.replace("grey", "gray");
+        for (int i = 0; i < COLOR_NAMES.length; i++) {
+            if (COLOR_NAMES[i].equals(normalized)) {
+                return i;
+            }
+        }
+        return NO_COLOR;
+    }
+
+    private static int decorationIndex(String name) {
+        return switch (name) {
+            case "obfuscated", "obf" -> 0;
+            case "bold", "b" -> 1;
+            case "strikethrough", "st" -> 2;
+            case "underlined", "u" -> 3;
+            case "italic", "i", "em" -> 4;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Finds the closing {@code >} of a tag.
+     *
+     * @return The index of the closing bracket, -1 if this is not a tag, or -2 if the tag has quoted arguments
+     */
+    private static int tagEnd(String text, int start) {
+        for (int i = start + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '>') {
+                return i == start + 1 ? -1 : i;
+            }
+            if (c == '\'' || c == '"') {
+                return -2;
+            }
+            if (c == '<' || c == '\n') {
+                return -1;
+            }
+            if (!isTagChar(c)) {
+                return c >= 'A' && c <= 'Z' ? -2 : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTagChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '#' || c == ':' || c == '/' || c == '!' || c == '.';
+    }
+
+    private static void appendHex(StringBuilder out, int rgb) {
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            out.append(Character.forDigit((rgb >> shift) & 0xF, 16));
+        }
+    }
+
+    /**
+     * Open tags and the style each one resolves to.
+     */
+    private static final class StyleStack {
+        private String[] names = new String[8];
+        private int[] colors = new int[8];
+        private int[] decorations = new int[8];
+        private int size;
+
+        int color() {
+            return size == 0 ? NO_COLOR : colors[size - 1];
+        }
+
+        int decorations() {
+            return size == 0 ? 0 : decorations[size - 1];
+        }
+
+        void push(String name, int color, int decorationMask) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                colors = Arrays.copyOf(colors, size * 2);
+                decorations = Arrays.copyOf(decorations, size * 2);
+            }
+            names[size] = name;
+            colors[size] = color;
+            decorations[size] = decorationMask;
+            size++;
+        }
+
+        /**
+         * Closes the innermost tag with the name and every tag opened after it.
+         *
+         * @return false if no such tag is open
+         */
+        boolean close(String name) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (names[i].equals(name)) {
+                    size = i;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void reset() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package me.josielcm.jcm.formats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+
+/**
+ * An immutable, pre-parsed MiniMessage string with placeholder slots.
+ * <p>
+ * The source string is deserialized once when the template is compiled. Every
+ * text segment that contains a placeholder is split into literal parts and
+ * slots, while subtrees without placeholders are kept as the original
+ * (immutable) components and reused on every render. Rendering only rebuilds
+ * the path from the root to each slot, so it never parses again and never
+ * rescans the tree once per placeholder. Slots are also found in the text of
+ * {@code show_text} hover events and in the arguments of translatable
+ * components.
+ * <p>
+ * Templates are thread-safe and meant to be compiled once (for example when a
+ * config is loaded) and rendered many times.
+ *
+ * <pre>
+ * MessageTemplate template = Color.compile("&lt;gold&gt;Welcome %player%!");
+ * Component message = template.render(Map.of("%player%", Component.text(player.getName())));
+ * </pre>
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class MessageTemplate {
+
+    private final String source;
+    private final Node root;
+    private final Set<String> slots;
+    private final Slot[] occurrences;
+    private final int staticWidth;
+
+    private MessageTemplate(String source, Node root, Set<String> slots, Slot[] occurrences, int staticWidth) {
+        this.source = source;
+        this.root = root;
+        this.slots = slots;
+        this.occurrences = occurrences;
+        this.staticWidth = staticWidth;
+    }
+
+    /**
+     * Compiles a template whose slots are {@code %name%} and {@code {name}} tokens.
+     * The slot keys keep their delimiters, so {@code "%player%"} is rendered
+     * from the map entry with the key {@code "%player%"}.
+     *
+     * @param message The MiniMessage string to compile
+     * @return The compiled template
+     */
+    static MessageTemplate compile(@NotNull String message) {
+        return compile(message, Color.parse(message), MessageTemplate::splitDelimited);
+    }
+
+    /**
+     * Compiles a template whose slots are the given literal keys.
+     *
+     * @param message The MiniMessage string to compile
+     * @param keys The literal placeholder keys
+     * @return The compiled template
+     */
+    static MessageTemplate compile(@NotNull String message, @NotNull Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (key != null && !key.isEmpty()) {
+                sorted.add(key);
+            }
+        }
+        // Longest keys first so "%player_name%" wins over "%player%"
+        sorted.sort(Comparator.comparingInt(String::length).reversed());
+        String[] literals = sorted.toArray(new String[0]);
+
+        return compile(message, Color.parse(message), content -> splitLiteral(content, literals));
+    }
+
+    private static MessageTemplate compile(String message, Component parsed, Splitter splitter) {
+        Compilation compilation = new Compilation(splitter, new LinkedHashSet<>());
+        Node root = compileNode(parsed, false, compilation);
+        return new MessageTemplate(message, root, Collections.unmodifiableSet(compilation.found),
+                compilation.occurrences.toArray(new Slot[0]), compilation.staticWidth);
+    }
+
+    /**
+     * Renders the template filling each slot with its replacement.
+     * Slots without a replacement keep their literal text.
+     *
+     * @param placeholders Map of slot keys to their component replacements
+     * @return The rendered component
+     */
+    public @NotNull Component render(@NotNull Map<String, ? extends ComponentLike> placeholders) {
+        return root.render(placeholders);
+    }
+
+    /**
+     * Renders the template leaving every slot as literal text.
+     *
+     * @return The rendered component
+     */
+    public @NotNull Component render() {
+        return root.render(Collections.emptyMap());
+    }
+
+    /**
+     * Measures the template as rendered with the given placeholders, in pixels.
+     * The width of everything but the slots is computed once at compile time,
+     * so only the replacements are measured here.
+     *
+     * @param placeholders Map of slot keys to their component replacements
+     * @return The width in pixels
+     * @see TextMetrics
+     */
+    public int width(@NotNull Map<String, ? extends ComponentLike> placeholders) {
+        int width = staticWidth;
+        for (Slot slot : occurrences) {
+            ComponentLike replacement = placeholders.get(slot.key());
+            width += replacement != null
+                    ? TextMetrics.width(replacement.asComponent(), slot.bold())
+                    : TextMetrics.width(slot.key(), slot.bold());
+        }
+        return width;
+    }
+
+    /**
+     * Gets the slot keys found in this template, in order of appearance.
+     *
+     * @return An unmodifiable set of slot keys
+     */
+    public @NotNull Set<String> getSlots() {
+        return slots;
+    }
+
+    /**
+     * Checks whether this template has any placeholder slot.
+     *
+     * @return true if at least one slot was found
+     */
+    public boolean hasSlots() {
+        return !slots.isEmpty();
+    }
+
+    /**
+     * Gets the MiniMessage string this template was compiled from.
+     *
+     * @return The source string
+     */
+    public @NotNull String getSource() {
+        return source;
+    }
+
+    private static Node compileNode(Component component, boolean parentBold, Compilation compilation) {
+        boolean bold = TextMetrics.isBold(component.style(), parentBold);
+        List<Object> parts = null;
+
+        if (component instanceof TextComponent text) {
+            parts = compilation.splitter.split(text.content());
+            if (parts != null) {
+                for (int i = 0; i < parts.size(); i++) {
+                    if (parts.get(i) instanceof Slot slot) {
+                        Slot resolved = new Slot(slot.key(), bold);
+                        parts.set(i, resolved);
+                        compilation.found.add(slot.key());
+                        compilation.occurrences.add(resolved);
+                    } else {
+                        compilation.staticWidth += TextMetrics.width((String) parts.get(i), bold);
+                    }
+                }
+            }
+        }
+
+        List<Component> children = component.children();
+        Node[] childNodes = new Node[children.size()];
+        boolean dynamic = false;
+
+        for (int i = 0; i < childNodes.length; i++) {
+            childNodes[i] = compileNode(children.get(i), bold, compilation);
+            dynamic |= !(childNodes[i] instanceof StaticNode);
+        }
+
+        Node node;
+        if (parts != null) {
+            node = TextNode.of(component.style(), parts, childNodes);
+        } else {
+            compilation.staticWidth += TextMetrics.contentWidth(component, bold);
+            node = dynamic ? new ContainerNode(component, childNodes) : new StaticNode(component);
+        }
+
+        return decorate(component, node, compilation);
+    }
+
+    /**
+     * Compiles the hover text and translation arguments of a component, which
+     * are not part of its children. They are not shown inline, so they do not
+     * count towards the width.
+     */
+    private static Node decorate(Component component, Node node, Compilation compilation) {
+        Node hover = null;
+        HoverEvent<?> event = component.style().hoverEvent();
+        if (event != null && event.action() == HoverEvent.Action.SHOW_TEXT) {
+            Node compiled = compileNode((Component) event.value(), false, compilation.detached());
+            if (!(compiled instanceof StaticNode)) {
+                hover = compiled;
+            }
+        }
+
+        Node[] args = null;
+        if (component instanceof TranslatableComponent translatable && !translatable.args().isEmpty()) {
+            List<Component> arguments = translatable.args();
+            Node[] compiled = new Node[arguments.size()];
+            boolean dynamic = false;
+            for (int i = 0; i < compiled.length; i++) {
+                compiled[i] = compileNode(arguments.get(i), false, compilation.detached());
+                dynamic |= !(compiled[i] instanceof StaticNode);
+            }
+            if (dynamic) {
+                args = compiled;
+            }
+        }
+
+        return hover == null && args == null ? node : new DecoratedNode(node, hover, args);
+    }
+
+    /**
+     * Splits on {@code %name%} and {@code {name}} tokens.
+     */
+    private static List<Object> splitDelimited(String content) {
+        List<Object> parts = null;
+        int last = 0;
+        int length = content.length();
+
+        for (int i = 0; i < length; i++) {
+            char open = content.charAt(i);
+            if (open != '%' && open != '{') {
+                continue;
+            }
+
+            char close = open == '%' ? '%' : '}';
+            int end = i + 1;
+            while (end < length && isSlotChar(content.charAt(end))) {
+                end++;
+            }
+
+            if (end == i + 1 || end >= length || content.charAt(end) != close) {
+                continue;
+            }
+
+            if (parts == null) {
+                parts = new ArrayList<>();
+            }
+            if (i > last) {
+                parts.add(content.substring(last, i));
+            }
+            parts.add(new Slot(content.substring(i, end + 1), false));
+            last = end + 1;
+            i = end;
+        }
+
+        if (parts != null && last < length) {
+            parts.add(content.substring(last));
+        }
+
+        return parts;
+    }
+
+    private static boolean isSlotChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '-' || c == '.' || c == ':';
+    }
+
+    /**
+     * Splits on the given literal keys, longest key first at each position.
+     */
+    private static List<Object> splitLiteral(String content, String[] keys) {
+        if (keys.length == 0) {
+            return null;
+        }
+
+        List<Object> parts = null;
+        int last = 0;
+        int i = 0;
+
+        while (i < content.length()) {
+            String match = null;
+            for (String key : keys) {
+                if (content.startsWith(key, i)) {
+                    match = key;
+                    break;
+                }
+            }
+
+            if (match == null) {
+                i++;
+                continue;
+            }
+
+            if (parts == null) {
+                parts = new ArrayList<>();
+            }
+            if (i > last) {
+                parts.add(content.substring(last, i));
+            }
+            parts.add(new Slot(match, false));
+            i += match.length();
+            last = i;
+        }
+
+        if (parts != null && last < content.length()) {
+            parts.add(content.substring(last));
+        }
+
+        return parts;
+    }
+
+    @FunctionalInterface
+    private interface Splitter {
+        /**
+         * @return The literal and slot parts of the content, or null if it has no slot
+         */
+        List<Object> split(String content);
+    }
+
+    /**
+     * A placeholder occurrence and whether the text around it is bold.
+     */
+    private record Slot(String key, boolean bold) {
+    }
+
+    /**
+     * State collected while walking the parsed tree.
+     */
+    private static final class Compilation {
+        private final Splitter splitter;
+        private final Set<String> found;
+        private final List<Slot> occurrences = new ArrayList<>();
+        private int staticWidth;
+
+        Compilation(Splitter splitter, Set<String> found) {
+            this.splitter = splitter;
+            this.found = found;
+        }
+
+        /**
+         * @return A compilation sharing the found slots but not the width, for
+         *         text that is not rendered inline
+         */
+        Compilation detached() {
+            return new Compilation(splitter, found);
+        }
+    }
+
+    private abstract static class Node {
+        abstract Component render(Map<String, ? extends ComponentLike> placeholders);
+
+        static List<Component> renderAll(Node[] nodes, Map<String, ? extends ComponentLike> placeholders,
+                List<Component> out) {
+            for (Node node : nodes) {
+                out.add(node.render(placeholders));
+            }
+            return out;
+        }
+    }
+
+    /**
+     * A subtree without slots, reused as is.
+     */
+    private static final class StaticNode extends Node {
+        private final Component component;
+
+        StaticNode(Component component) {
+            this.component = component;
+        }
+
+        @Override
+        Component render(Map<String, ? extends ComponentLike> placeholders) {
+            return component;
+        }
+    }
+
+    /**
+     * A component without slots of its own but with dynamic children.
+     */
+    private static final class ContainerNode extends Node {
+        private final Component base;
+        private final Node[] children;
+
+        ContainerNode(Component base, Node[] children) {
+            this.base = base;
+            this.children = children;
+        }
+
+        @Override
+        Component render(Map<String, ? extends ComponentLike> placeholders) {
+            return base.children(renderAll(children, placeholders, new ArrayList<>(children.length)));
+        }
+    }
+
+    /**
+     * A component whose hover text or translation arguments hold slots.
+     */
+    private static final class DecoratedNode extends Node {
+        private final Node node;
+        private final Node hover;
+        private final Node[] args;
+
+        DecoratedNode(Node node, Node hover, Node[] args) {
+            this.node = node;
+            this.hover = hover;
+            this.args = args;
+        }
+
+        @Override
+        Component render(Map<String, ? extends ComponentLike> placeholders) {
+            Component rendered = node.render(placeholders);
+            if (hover != null) {
+                rendered = rendered.hoverEvent(HoverEvent.showText(hover.render(placeholders)));
+            }
+            if (args != null && rendered instanceof TranslatableComponent translatable) {
+                rendered = translatable.args(renderAll(args, placeholders, new ArrayList<>(args.length)));
+            }
+            return rendered;
+        }
+    }
+
+    /**
+     * A text component whose content holds at least one slot. The leading
+     * literal stays as the content, the remaining parts become children that
+     * inherit the style, followed by the original children.
+     */
+    private static final class TextNode extends Node {
+        private final String content;
+        private final Style style;
+        private final Object[] segments;
+        private final Node[] children;
+
+        private TextNode(String content, Style style, Object[] segments, Node[] children) {
+            this.content = content;
+            this.style = style;
+            this.segments = segments;
+            this.children = children;
+        }
+
+        static TextNode of(Style style, List<Object> parts, Node[] children) {
+            int start = 0;
+            String content = "";
+            if (parts.get(0) instanceof String leading) {
+                content = leading;
+                start = 1;
+            }
+
+            Object[] segments = new Object[parts.size() - start];
+            for (int i = start; i < parts.size(); i++) {
+                Object part = parts.get(i);
+                if (part instanceof Slot) {
+                    segments[i - start] = part;
+                } else {
+                    segments[i - start] = Component.text((String) part);
+                }
+            }
+
+            return new TextNode(content, style, segments, children);
+        }
+
+        @Override
+        Component render(Map<String, ? extends ComponentLike> placeholders) {
+            List<Component> out = new ArrayList<>(segments.length + children.length);
+
+            for (Object segment : segments) {
+                if (segment instanceof Slot slot) {
+                    ComponentLike replacement = placeholders.get(slot.key());
+                    out.add(replacement != null ? replacement.asComponent() : Component.text(slot.key()));
+                } else {
+                    out.add((Component) segment);
+                }
+            }
+
+            return Component.text(content, style).children(renderAll(children, placeholders, out));
+        }
+    }
+}
@@ -2,11 +2,20 @@ package me.josielcm.jcm.formats;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
+
+import me.josielcm.jcm.JCoreAPI;
+import me.josielcm.jcm.metrics.Timer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
+import me.josielcm.jcm.scheduler.JCoreScheduler;
+import me.josielcm.jcm.scheduler.ScheduledTask;
+import me.josielcm.jcm.scheduler.TaskRouter;
+import me.josielcm.jcm.scheduler.TimingWheel;
 
 
 public class ParticleTextCreator {
@@ -18,7 +27,9 @@ public class ParticleTextCreator {
     private static final int CHAR_WIDTH = 5;
     private static final double PARTICLE_SPACING = 0.2;
 
-    private static final Map<Integer, BukkitRunnable> texts = new HashMap<>();
+    private static final Map<Integer, ScheduledTask> texts = new ConcurrentHashMap<>();
+
+    private static final Timer RENDER_TIMER = JCoreAPI.getMetrics().timer("particles.text");
     
     /**
      * Creates a text display using particles at a specified location
@@ -29,75 +40,131 @@ public class ParticleTextCreator {
      * @param interval Update interval in ticks
      */
     public static void createParticleText(JavaPlugin plugin, int id, Location location, String text, Particle particle, int duration, int interval) {
-        final String upperText = text.toUpperCase();
+        // With the API running, the duration is tracked by its timing wheel
+        // instead of by every text
+        final TimingWheel wheel = duration == -1 ? null : timingWheel();
+        final int maxTicks = duration == -1 || wheel != null ? -1 : duration * 20;
+
+        ParticleText particleText = new ParticleText(id, location, text.toUpperCase(), particle, interval, maxTicks);
         
-        BukkitRunnable particleTask = new BukkitRunnable() {
-            private int ticks = 0;
-            private final int maxTicks = duration == -1 ? -1 : duration * 20;
-            
-            @Override
-            public void run() {
-                // Stop if the duration has elapsed
-                if (maxTicks != -1 && ticks >= maxTicks) {
-                    this.cancel();
-                    return;
-                }
-                
-                // Display particles for each character
-                double xOffset = 0;
-                
-                for (char c : upperText.toCharArray()) {
-                    boolean[][] matrix = characterMatrices.getOrDefault(c, characterMatrices.get(' '));
-                    
-                    for (int y = 0; y < CHAR_HEIGHT; y++) {
-                        for (int x = 0; x < CHAR_WIDTH; x++) {
-                            if (matrix[y][x]) {
-                                // Calculate position with offsets
-                                double xPos = location.getX() + xOffset + (x * PARTICLE_SPACING);
-                                double yPos = location.getY() + ((CHAR_HEIGHT - y) * PARTICLE_SPACING);
-                                double zPos = location.getZ();
-                                
-                                // Spawn particle
-                                location.getWorld().spawnParticle(
-                                    particle,
-                                    xPos, yPos, zPos,
-                                    1, 0, 0, 0, 0
-                                );
-                            }
-                        }
-                    }
-                    
-                    // Move to next character position (add spacing between characters)
-                    xOffset += (CHAR_WIDTH + 1) * PARTICLE_SPACING;
+        // Start the task on the thread owning the location, the main thread outside Folia
+        ScheduledTask particleTask = TaskRouter.runTimer(plugin, location, particleText, 0, interval);
+        particleText.task = particleTask;
+
+        ScheduledTask previous = texts.put(id, particleTask);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        if (wheel != null) {
+            wheel.schedule(() -> {
+                // The text may have been stopped or replaced in the meantime
+                if (texts.remove(id, particleTask)) {
+                    particleTask.cancel();
                 }
-                
-                ticks += interval;
-            }
-        };
-        
-        // Start the runnable task
-        particleTask.runTaskTimer(plugin, 0, interval);
-        texts.put(id, particleTask);
+            }, Math.max(1, duration * 20L));
+        }
+    }
+
+    private static TimingWheel timingWheel() {
+        JCoreScheduler scheduler = JCoreAPI.getScheduler();
+        return scheduler == null || scheduler.isShutdown() ? null : scheduler.getTimingWheel();
     }
 
     public static void stop(int id) {
-        if (texts.containsKey(id)) {
-            texts.get(id).cancel();
-            texts.remove(id);
+        ScheduledTask task = texts.remove(id);
+        if (task != null) {
+            task.cancel();
         }
     }
 
     public static void stopAll() {
         for (Integer id : texts.keySet()) {
-            texts.get(id).cancel();
+            stop(id);
         }
-
-        texts.clear();
     }
 
-    public static Map<Integer, BukkitRunnable> getTexts() {
+    public static Map<Integer, ScheduledTask> getTexts() {
         return texts;
     }
+
+    /**
+     * Task drawing one text, run on the thread owning its location
+     */
+    private static final class ParticleText implements Runnable {
+        private final int id;
+        private final Location location;
+        private final String text;
+        private final Particle particle;
+        private final int interval;
+        private final int maxTicks;
+
+        private volatile ScheduledTask task;
+        private int ticks = 0;
+
+        private ParticleText(int id, Location location, String text, Particle particle, int interval, int maxTicks) {
+            this.id = id;
+            this.location = location;
+            this.text = text;
+            this.particle = particle;
+            this.interval = interval;
+            this.maxTicks = maxTicks;
+        }
+
+        @Override
+        public void run() {
+            // Stop if the duration has elapsed
+            if (maxTicks != -1 && ticks >= maxTicks) {
+                ScheduledTask self = task;
+                if (self != null) {
+                    texts.remove(id, self);
+                    self.cancel();
+                }
+                return;
+            }
+            
+            long start = RENDER_TIMER.start();
+            int token = TickProfiler.enter(Area.PARTICLES);
+            try {
+                render();
+            } finally {
+                TickProfiler.exit(token);
+                RENDER_TIMER.stop(start);
+            }
+
+            ticks += interval;
+        }
+
+        private void render() {
+            // Display particles for each character
+            double xOffset = 0;
+            
+            for (char c : text.toCharArray()) {
+                boolean[][] matrix = characterMatrices.getOrDefault(c, characterMatrices.get(' '));
+                
+                for (int y = 0; y < CHAR_HEIGHT; y++) {
+                    for (int x = 0; x < CHAR_WIDTH; x++) {
+                        if (matrix[y][x]) {
+                            // Calculate position with offsets
+                            double xPos = location.getX() + xOffset + (x * PARTICLE_SPACING);
+                            double yPos = location.getY() + ((CHAR_HEIGHT - y) * PARTICLE_SPACING);
+                            double zPos = location.getZ();
+                            
+                            // Spawn particle
+                            location.getWorld().spawnParticle(
+                                particle,
+                                xPos, yPos, zPos,
+                                1, 0, 0, 0, 0
+                            );
+                        }
+                    }
+                }
+                
+                // Move to next character position (add spacing between characters)
+                xOffset += (CHAR_WIDTH + 1) * PARTICLE_SPACING;
+            }
+        }
+    }
     
     /**
      * Initialize character matrices for uppercase letters and common symbols
@@ -0,0 +1,227 @@
+package me.josielcm.jcm.formats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Streaming scanner that removes MiniMessage styling tags from a string
+ * without building a component tree.
+ * <p>
+ * Only tags that are known to affect style alone (colors, decorations,
+ * gradients, click/hover events, fonts...) are skipped, and brackets that
+ * cannot start a tag ({@code a < b}) are kept as literal text. Whenever the
+ * scanner meets something whose plain text it cannot predict without parsing
+ * (tags that insert content such as {@code <newline>} or {@code <lang>},
+ * unknown tag names, escapes, unterminated quotes, upper-case tag names) it
+ * gives up and returns {@code null}, so the caller can fall back to a full
+ * parse.
+ * <p>
+ * The scanner keeps the names of the open tags: MiniMessage renders a closing
+ * tag that closes nothing as literal text, so only closing tags that match an
+ * open tag are skipped.
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+final class TagStripper {
+
+    /** Standard tags that only change style and render no text of their own */
+    private static final Set<String> STYLE_TAGS = Set.of(
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold",
+            "gray", "grey", "dark_gray", "dark_grey", "blue", "green", "aqua", "red", "light_purple",
+            "yellow", "white", "color", "colour", "c",
+            "bold", "b", "italic", "em", "i", "underlined", "u", "strikethrough", "st", "obfuscated", "obf",
+            "reset", "gradient", "rainbow", "transition", "click", "hover", "insert", "font");
+
+    private TagStripper() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Removes styling tags from a MiniMessage string.
+     *
+     * @param text The MiniMessage string
+     * @return The plain text, or null if a full parse is needed
+     */
+    static @Nullable String strip(String text) {
+        if (text.indexOf('<') < 0 && text.indexOf('\\') < 0) {
+            return text;
+        }
+
+        StringBuilder out = new StringBuilder(text.length());
+        return scan(text, out) < 0 ? null : out.toString();
+    }
+
+    /**
+     * Counts the visible code points of a MiniMessage string.
+     *
+     * @param text The MiniMessage string
+     * @return The number of visible code points, or -1 if a full parse is needed
+     */
+    static int visibleLength(String text) {
+        if (text.indexOf('<') < 0 && text.indexOf('\\') < 0) {
+            return text.codePointCount(0, text.length());
+        }
+        return scan(text, null);
+    }
+
+    /**
+     * Scans the text, appending visible characters to {@code out} when given.
+     *
+     * @return The number of visible code points, or -1 to request a full parse
+     */
+    private static int scan(String text, @Nullable StringBuilder out) {
+        int visible = 0;
+        int length = text.length();
+        int i = 0;
+        List<String> open = new ArrayList<>();
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '\\') {
+                return -1;
+            }
+
+            if (c == '<') {
+                int end = tagEnd(text, i);
+                if (end == -2) {
+                    return -1;
+                }
+
+                if (end > 0) {
+                    int kind = classify(text, i + 1, end, open);
+                    if (kind < 0) {
+                        return -1;
+                    }
+                    if (kind == 0) {
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            }
+
+            if (out != null) {
+                out.append(c);
+            }
+            if (!Character.isLowSurrogate(c)) {
+                visible++;
+            }
+            i++;
+        }
+
+        return visible;
+    }
+
+    /**
+     * Finds the closing {@code >} of a tag, honoring quoted arguments.
+     *
+     * @return The index of the closing bracket, -1 if this is not a tag, or -2 to request a full parse
+     */
+    private static int tagEnd(String text, int start) {
+        char quote = 0;
+
+        for (int i = start + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (quote != 0) {
+                if (c == '\\') {
+                    return -2;
+                }
+                if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+
+            if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            } else if (c == '<' || c == '\n') {
+                return -1;
+            }
+        }
+
+        return quote != 0 ? -2 : -1;
+    }
+
+    /**
+     * Classifies the tag between {@code from} (after {@code <}) and {@code to}
+     * (the {@code >}), opening or closing it in {@code open}.
+     *
+     * @return 0 for a styling tag to skip, 1 if the bracket is literal text, -1 to request a full parse
+     */
+    private static int classify(String text, int from, int to, List<String> open) {
+        boolean closing = from < to && text.charAt(from) == '/';
+        int nameStart = from;
+        if (nameStart < to && (text.charAt(nameStart) == '/' || text.charAt(nameStart) == '!')) {
+            nameStart++;
+        }
+        if (closing && nameStart < to && text.charAt(nameStart) == '!') {
+            // Closing a negation such as "</!b>" is matched by the parser
+            return -1;
+        }
+
+        int nameEnd = nameStart;
+        while (nameEnd < to && text.charAt(nameEnd) != ':') {
+            char c = text.charAt(nameEnd);
+            if (c >= 'A' && c <= 'Z') {
+                return -1;
+            }
+            if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_' && c != '-' && c != '#') {
+                return 1;
+            }
+            nameEnd++;
+        }
+
+        if (nameEnd == nameStart) {
+            // "<>" is plain text, "</>" and "<!>" need the parser
+            return nameStart == from ? 1 : -1;
+        }
+
+        String name = text.substring(nameStart, nameEnd);
+        if (!STYLE_TAGS.contains(name) && !isHexColor(name)) {
+            // Anything else may be a content tag (newline, lang, key, score...) or a literal
+            return -1;
+        }
+
+        if (!closing) {
+            if (name.equals("reset")) {
+                open.clear();
+            } else {
+                // "<!b>" is only closed by "</!b>", never by "</b>"
+                open.add(nameStart == from ? name : "!" + name);
+            }
+            return 0;
+        }
+
+        // Closing tags with arguments are matched by the parser
+        if (nameEnd != to) {
+            return -1;
+        }
+        int match = open.lastIndexOf(name);
+        if (match < 0) {
+            // Closes nothing, the parser keeps it as text
+            return -1;
+        }
+        // Tags opened inside the closed one are closed with it
+        open.subList(match, open.size()).clear();
+        return 0;
+    }
+
+    private static boolean isHexColor(String name) {
+        if (name.length() != 7 || name.charAt(0) != '#') {
+            return false;
+        }
+        for (int i = 1; i < 7; i++) {
+            if (Character.digit(name.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,277 @@
+package me.josielcm.jcm.formats;
+
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * Pixel-accurate text measurement for the default Minecraft font.
+ * <p>
+ * Widths come from a precomputed {@code byte[]} table holding the advance
+ * (glyph width plus the 1 px gap) of every Latin-1 character. Bold text adds
+ * 1 px per character. Characters outside the table use the unicode fallback
+ * widths: 9 px for CJK and full-width forms, 6 px for everything else.
+ * <p>
+ * Components are measured in a single walk that follows bold inheritance, and
+ * {@link MessageTemplate}s cache the width of everything but their slots, so
+ * centering a template for many players only measures the slot values.
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class TextMetrics {
+
+    /** Default width of the chat box in pixels */
+    public static final int CHAT_WIDTH = 320;
+
+    /** Advance of a regular (not bold) space in pixels */
+    public static final int SPACE_WIDTH = 4;
+
+    private static final int DEFAULT_ADVANCE = 6;
+    private static final int WIDE_ADVANCE = 9;
+    private static final String ELLIPSIS = "...";
+
+    /** Advance in pixels of each Latin-1 character, including the 1 px gap */
+    private static final byte[] ADVANCES = buildAdvances();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class
+     */
+    private TextMetrics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Gets the horizontal advance of a single character.
+     *
+     * @param codePoint The character
+     * @param bold Whether the character is bold
+     * @return The advance in pixels
+     */
+    public static int advance(int codePoint, boolean bold) {
+        int advance;
+        if (codePoint < ADVANCES.length) {
+            advance = ADVANCES[codePoint];
+            if (advance == 0) {
+                return 0;
+            }
+        } else {
+            advance = isWide(codePoint) ? WIDE_ADVANCE : DEFAULT_ADVANCE;
+        }
+        return bold ? advance + 1 : advance;
+    }
+
+    /**
+     * Measures a plain string.
+     *
+     * @param text The plain text, without any tags
+     * @param bold Whether the text is bold
+     * @return The width in pixels
+     */
+    public static int width(@NotNull String text, boolean bold) {
+        int width = 0;
+        for (int i = 0; i < text.length();) {
+            int codePoint = text.codePointAt(i);
+            width += advance(codePoint, bold);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    /**
+     * Measures a component tree.
+     *
+     * @param component The component to measure
+     * @return The width in pixels
+     */
+    public static int width(@NotNull Component component) {
+        return width(component, false);
+    }
+
+    /**
+     * Measures a MiniMessage string.
+     *
+     * @param miniMessage The MiniMessage string
+     * @return The width in pixels
+     */
+    public static int width(@NotNull String miniMessage) {
+        return width(Color.parse(miniMessage), false);
+    }
+
+    /**
+     * Measures a template rendered with the given placeholders without rendering it.
+     *
+     * @param template The template
+     * @param placeholders Map of slot keys to their component replacements
+     * @return The width in pixels
+     */
+    public static int width(@NotNull MessageTemplate template, @NotNull Map<String, ? extends ComponentLike> placeholders) {
+        return template.width(placeholders);
+    }
+
+    /**
+     * Measures a component as if its parent had the given bold state.
+     */
+    static int width(Component component, boolean parentBold) {
+        boolean bold = isBold(component.style(), parentBold);
+        int width = contentWidth(component, bold);
+
+        for (Component child : component.children()) {
+            width += width(child, bold);
+        }
+
+        return width;
+    }
+
+    /**
+     * Measures the content of a component itself, without its children.
+     */
+    static int contentWidth(Component component, boolean bold) {
+        if (component instanceof TextComponent text) {
+            return width(text.content(), bold);
+        } else if (component instanceof TranslatableComponent translatable) {
+            return width(translatable.fallback() != null ? translatable.fallback() : translatable.key(), bold);
+        } else if (component instanceof KeybindComponent keybind) {
+            return width(keybind.keybind(), bold);
+        }
+        return 0;
+    }
+
+    /**
+     * Resolves the bold state of a style against its parent.
+     */
+    static boolean isBold(Style style, boolean parentBold) {
+        TextDecoration.State state = style.decoration(TextDecoration.BOLD);
+        return state == TextDecoration.State.NOT_SET ? parentBold : state == TextDecoration.State.TRUE;
+    }
+
+    /**
+     * Centers a component within a width by prefixing spaces.
+     *
+     * @param component The component to center
+     * @param width The width to center within, in pixels
+     * @return The padded component
+     */
+    public static @NotNull Component center(@NotNull Component component, int width) {
+        return prefix(component, (width - width(component)) / 2);
+    }
+
+    /**
+     * Centers a rendered template within a width by prefixing spaces.
+     *
+     * @param template The template
+     * @param placeholders Map of slot keys to their component replacements
+     * @param width The width to center within, in pixels
+     * @return The padded component
+     */
+    public static @NotNull Component center(@NotNull MessageTemplate template,
+            @NotNull Map<String, ? extends ComponentLike> placeholders, int width) {
+        return prefix(template.render(placeholders), (width - template.width(placeholders)) / 2);
+    }
+
+    /**
+     * Pads a component with trailing spaces up to a width.
+     *
+     * @param component The component to pad
+     * @param width The target width in pixels
+     * @return The padded component
+     */
+    public static @NotNull Component pad(@NotNull Component component, int width) {
+        int spaces = Math.max(0, (width - width(component)) / SPACE_WIDTH);
+        if (spaces == 0) {
+            return component;
+        }
+        return Component.text().append(component).append(Component.text(" ".repeat(spaces))).build();
+    }
+
+    /**
+     * Pads a plain string with trailing spaces up to a width.
+     *
+     * @param text The plain text
+     * @param width The target width in pixels
+     * @param bold Whether the text is bold
+     * @return The padded text
+     */
+    public static @NotNull String pad(@NotNull String text, int width, boolean bold) {
+        int spaces = Math.max(0, (width - width(text, bold)) / SPACE_WIDTH);
+        return spaces == 0 ? text : text + " ".repeat(spaces);
+    }
+
+    /**
+     * Truncates a plain string so it fits a width, ending it with "..." when cut.
+     *
+     * @param text The plain text
+     * @param width The maximum width in pixels
+     * @param bold Whether the text is bold
+     * @return The text, shortened if needed
+     */
+    public static @NotNull String fit(@NotNull String text, int width, boolean bold) {
+        if (width(text, bold) <= width) {
+            return text;
+        }
+
+        int budget = width - width(ELLIPSIS, bold);
+        int used = 0;
+        int end = 0;
+        while (end < text.length()) {
+            int codePoint = text.codePointAt(end);
+            int advance = advance(codePoint, bold);
+            if (used + advance > budget) {
+                break;
+            }
+            used += advance;
+            end += Character.charCount(codePoint);
+        }
+
+        return budget <= 0 ? "" : text.substring(0, end) + ELLIPSIS;
+    }
+
+    private static Component prefix(Component component, int pixels) {
+        int spaces = Math.max(0, pixels / SPACE_WIDTH);
+        if (spaces == 0) {
+            return component;
+        }
+        return Component.text().content(" ".repeat(spaces)).append(component).build();
+    }
+
+    private static boolean isWide(int codePoint) {
+        return (codePoint >= 0x1100 && codePoint <= 0x115F)
+                || (codePoint >= 0x2E80 && codePoint <= 0xA4CF)
+                || (codePoint >= 0xAC00 && codePoint <= 0xD7A3)
+                || (codePoint >= 0xF900 && codePoint <= 0xFAFF)
+                || (codePoint >= 0xFF00 && codePoint <= 0xFF60)
+                || (codePoint >= 0xFFE0 && codePoint <= 0xFFE6);
+    }
+
+    private static byte[] buildAdvances() {
+        byte[] advances = new byte[256];
+
+        // Control characters render nothing
+        for (int c = 0x20; c < advances.length; c++) {
+            advances[c] = DEFAULT_ADVANCE;
+        }
+        advances[0x7F] = 0;
+
+        set(advances, 2, "!',.:;i|");
+        set(advances, 3, "`l");
+        set(advances, 4, " I[]t");
+        set(advances, 5, "\"()*<>fk{}");
+        set(advances, 7, "@~");
+
+        return advances;
+    }
+
+    private static void set(byte[] advances, int advance, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            advances[chars.charAt(i)] = (byte) advance;
+        }
+    }
+}
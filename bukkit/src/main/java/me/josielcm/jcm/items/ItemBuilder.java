@@ -21,6 +21,9 @@ import com.destroystokyo.paper.profile.PlayerProfile;
 import com.destroystokyo.paper.profile.ProfileProperty;
 
 import me.josielcm.jcm.formats.Color;
+import me.josielcm.jcm.formats.KeyReplacer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
 import net.kyori.adventure.text.Component;
 
 /**
@@ -122,6 +125,20 @@ public class ItemBuilder {
         return this;
     }
 
+    /**
+     * Sets the display name of the item with color formatting, replacing placeholders first.
+     * 
+     * @param displayName  The display name to set (supports color codes)
+     * @param placeholders Map of placeholder keys to their values
+     * @return This builder for method chaining
+     */
+    public ItemBuilder displayName(String displayName, Map<String, String> placeholders) {
+        if (placeholders.isEmpty()) {
+            return displayName(displayName);
+        }
+        return displayName(KeyReplacer.cached(placeholders.keySet()).replace(displayName, placeholders));
+    }
+
     /**
      * Adds a single line to the item's lore with color formatting.
      * 
@@ -146,6 +163,26 @@ public class ItemBuilder {
         return this;
     }
 
+    /**
+     * Sets multiple lines of lore with color formatting, replacing placeholders first.
+     * The placeholder keys are compiled once and every line is processed in a single pass.
+     * 
+     * @param lore         A list of lore lines (supports color codes)
+     * @param placeholders Map of placeholder keys to their values
+     * @return This builder for method chaining
+     */
+    public ItemBuilder lore(List<String> lore, Map<String, String> placeholders) {
+        if (placeholders.isEmpty()) {
+            return lore(lore);
+        }
+
+        KeyReplacer replacer = KeyReplacer.cached(placeholders.keySet());
+        for (String line : lore) {
+            this.lore.add(Color.parse(replacer.replace(line, placeholders)));
+        }
+        return this;
+    }
+
     /**
      * Sets multiple lines of lore using pre-formatted Components.
      * 
@@ -341,15 +378,20 @@ public class ItemBuilder {
      * @return The constructed ItemStack
      */
     public ItemStack build() {
-        if (skullMeta != null) {
-            skullMeta.lore(lore);
-            item.setItemMeta(skullMeta);
-        } else {
-            meta.lore(lore);
-            item.setItemMeta(meta);
+        int token = TickProfiler.enter(Area.ITEMS);
+        try {
+            if (skullMeta != null) {
+                skullMeta.lore(lore);
+                item.setItemMeta(skullMeta);
+            } else {
+                meta.lore(lore);
+                item.setItemMeta(meta);
+            }
+            item.addUnsafeEnchantments(enchantments);
+            return item;
+        } finally {
+            TickProfiler.exit(token);
         }
-        item.addUnsafeEnchantments(enchantments);
-        return item;
     }
 
     /**
@@ -382,6 +424,16 @@ public class ItemBuilder {
      * @throws IllegalArgumentException if the material is invalid
      */
     public static ItemStack createItem(ConfigurationSection section, String path, NamespacedKey key, String pdcValue) {
+        int token = TickProfiler.enter(Area.ITEMS);
+        try {
+            return createItemFromSection(section, path, key, pdcValue);
+        } finally {
+            TickProfiler.exit(token);
+        }
+    }
+
+    private static ItemStack createItemFromSection(ConfigurationSection section, String path, NamespacedKey key,
+            String pdcValue) {
         String materialName = section.getString(path + ".material");
         Material material = Material.matchMaterial(materialName);
         List<String> lore = section.getStringList(path + ".lore") == null ? new ArrayList<>()
@@ -2,10 +2,15 @@ package me.josielcm.jcm.papi;
 
 import lombok.experimental.UtilityClass;
 import me.clip.placeholderapi.PlaceholderAPI;
+import me.josielcm.jcm.formats.KeyReplacer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -20,14 +25,57 @@ public class PAPI {
 	 */
 	public static String setPlaceholders(Player player, String string) {
 		if (Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+			// PlaceholderAPI placeholders always start with '%', skip the lookup otherwise.
+			// The round trip through '§' still turns section signs into '&'
+			if (string.indexOf('%') < 0) {
+				return string.replace('§', '&');
+			}
+
+			int token = TickProfiler.enter(Area.PLACEHOLDERS);
 			try {
 				return PlaceholderAPI.setPlaceholders(player, string.replace("&", "§")).replace("§", "&");
 			} catch (Exception ignored) {
+			} finally {
+				TickProfiler.exit(token);
 			}
 		}
 		return string;
 	}
 
+	/**
+	 * Set local placeholders and then PlaceholderAPI placeholders to given String for given Player.
+	 * Local placeholders are replaced in a single pass before PlaceholderAPI runs.
+	 *
+	 * @param player       The player.
+	 * @param string       The string.
+	 * @param placeholders Map of local placeholder keys to their values.
+	 * @return The string with replaced placeholders.
+	 */
+	public static String setPlaceholders(Player player, String string, Map<String, String> placeholders) {
+		if (!placeholders.isEmpty()) {
+			string = KeyReplacer.cached(placeholders.keySet()).replace(string, placeholders);
+		}
+		return setPlaceholders(player, string);
+	}
+
+	/**
+	 * Set local placeholders and then PlaceholderAPI placeholders to given List of Strings for given Player.
+	 * The local key set is compiled once for the whole list.
+	 *
+	 * @param player       The player.
+	 * @param stringList   The string list.
+	 * @param placeholders Map of local placeholder keys to their values.
+	 * @return The string list with replaced placeholders.
+	 */
+	public static List<String> setPlaceholders(Player player, List<String> stringList, Map<String, String> placeholders) {
+		KeyReplacer replacer = placeholders.isEmpty() ? null : KeyReplacer.cached(placeholders.keySet());
+		List<String> result = new ArrayList<>(stringList.size());
+		for (String line : stringList) {
+			result.add(setPlaceholders(player, replacer != null ? replacer.replace(line, placeholders) : line));
+		}
+		return result;
+	}
+
 	/**
 	 * Set placeholders to given List of Strings for given Player.
 	 *
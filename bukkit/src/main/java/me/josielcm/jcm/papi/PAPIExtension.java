@@ -11,13 +11,20 @@ import org.jetbrains.annotations.NotNull;
 
 import lombok.Getter;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import me.josielcm.jcm.JCoreAPI;
 import me.josielcm.jcm.logger.Log;
+import me.josielcm.jcm.logger.Logger;
+import me.josielcm.jcm.metrics.Timer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
 
 public class PAPIExtension extends PlaceholderExpansion {
 
     private final String identifier;
     private final String author;
     private final String version;
+    private final Logger logger;
+    private final Timer requestTimer;
 
     @Getter
     private Map<String, String> staticPlaceholders;
@@ -28,6 +35,8 @@ public class PAPIExtension extends PlaceholderExpansion {
         this.identifier = identifier;
         this.author = author;
         this.version = version;
+        this.logger = Log.of("PAPI " + identifier);
+        this.requestTimer = JCoreAPI.getMetrics().timer("papi.request", "expansion", identifier);
         staticPlaceholders = new HashMap<>();
         patternHandlers = new HashMap<>();
     }
@@ -119,6 +128,19 @@ public class PAPIExtension extends PlaceholderExpansion {
             return "";
         }
 
+        long start = requestTimer.start();
+        int token = TickProfiler.enter(Area.PLACEHOLDERS);
+        try {
+            return resolve(player, params);
+        } finally {
+            TickProfiler.exit(token);
+            requestTimer.stop(start);
+        }
+    }
+
+    private String resolve(OfflinePlayer player, String params) {
+        logger.debug("Resolving {} for {}", params, player.getUniqueId());
+
         if (staticPlaceholders.containsKey(params)) {
             return staticPlaceholders.get(params);
         }
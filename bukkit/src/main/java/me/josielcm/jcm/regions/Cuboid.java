@@ -1,5 +1,6 @@
 package me.josielcm.jcm.regions;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -9,11 +10,25 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import me.josielcm.jcm.JCoreAPI;
+import me.josielcm.jcm.metrics.Timer;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
+import me.josielcm.jcm.scheduler.BudgetedExecutor;
+import me.josielcm.jcm.scheduler.TaskRouter;
 
 public class Cuboid {
 
+    private static final Timer ENTITIES_TIMER = JCoreAPI.getMetrics().timer("cuboid.entities");
+
     private double xMinCentered;
     private double xMaxCentered;
     private double yMinCentered;
@@ -64,16 +79,113 @@ public class Cuboid {
         if (world == null) {
             return new HashSet<>();
         }
-        final Set<Block> blockList = new HashSet<>(this.getTotalBlockSize());
-        for (int x = this.xMin; x <= this.xMax; ++x) {
-            for (int y = this.yMin; y <= this.yMax; ++y) {
-                for (int z = this.zMin; z <= this.zMax; ++z) {
-                    final Block b = this.world.getBlockAt(x, y, z);
-                    blockList.add(b);
+        int token = TickProfiler.enter(Area.REGIONS);
+        try {
+            final Set<Block> blockList = new HashSet<>(this.getTotalBlockSize());
+            for (int x = this.xMin; x <= this.xMax; ++x) {
+                for (int y = this.yMin; y <= this.yMax; ++y) {
+                    for (int z = this.zMin; z <= this.zMax; ++z) {
+                        final Block b = this.world.getBlockAt(x, y, z);
+                        blockList.add(b);
+                    }
                 }
             }
+            return blockList;
+        } finally {
+            TickProfiler.exit(token);
         }
-        return blockList;
+    }
+
+    /**
+     * Iterates the blocks of the cuboid without collecting them first.
+     *
+     * @return A lazy iterator over every block, empty if the world is unknown
+     */
+    public Iterator<Block> blockIterator() {
+        return new BlockIterator();
+    }
+
+    /**
+     * Runs an action for every block, within the current tick.
+     *
+     * @param action The action
+     */
+    public void forEachBlock(Consumer<Block> action) {
+        int token = TickProfiler.enter(Area.REGIONS);
+        try {
+            blockIterator().forEachRemaining(action);
+        } finally {
+            TickProfiler.exit(token);
+        }
+    }
+
+    /**
+     * Prepares an action for every block, spread over as many ticks as needed
+     * to stay within the tick budget. Call {@link BudgetedExecutor#start()}
+     * to run it. On Folia it runs on the region owning the first corner, so
+     * the cuboid must not span several regions.
+     *
+     * @param action The action
+     * @return The executor, with its total set to the block count
+     */
+    public BudgetedExecutor<Block> forEachBlockBudgeted(Consumer<Block> action) {
+        return BudgetedExecutor.of(blockIterator(), action).total(getTotalBlockSize()).at(getPoint1());
+    }
+
+    /**
+     * Collects the blocks over several ticks, like {@link #getBlocks()}
+     * without freezing the server on large cuboids.
+     *
+     * @param budgetMillis Time the collection may take each tick
+     * @return A future completed with the blocks, cancelling it stops the collection
+     */
+    public CompletableFuture<Set<Block>> getBlocksBudgeted(long budgetMillis) {
+        Set<Block> blocks = new HashSet<>(world == null ? 0 : getTotalBlockSize());
+        return linked(forEachBlockBudgeted(blocks::add).budget(budgetMillis).start(), blocks);
+    }
+
+    /**
+     * Collects the entities over several ticks, one loaded chunk at a time.
+     * On Folia each chunk is read on its own region, as in
+     * {@link #getEntitiesAsync()}, and the budget is not used.
+     *
+     * @param budgetMillis Time the collection may take each tick
+     * @return A future completed with the entities, cancelling it stops the collection
+     */
+    public CompletableFuture<Set<Entity>> getEntitiesBudgeted(long budgetMillis) {
+        if (TaskRouter.isFolia()) {
+            // The chunks may belong to several regions, no single thread can read them all
+            return getEntitiesAsync();
+        }
+        Set<Entity> entities = new HashSet<>();
+        List<long[]> chunks = new ArrayList<>();
+        if (world != null) {
+            for (int cx = this.xMin >> 4; cx <= this.xMax >> 4; cx++) {
+                for (int cz = this.zMin >> 4; cz <= this.zMax >> 4; cz++) {
+                    chunks.add(new long[] { cx, cz });
+                }
+            }
+        }
+        CompletableFuture<Long> collection = BudgetedExecutor.of(chunks.iterator(),
+                (long[] chunk) -> collectEntities((int) chunk[0], (int) chunk[1], entities))
+                .budget(budgetMillis)
+                .total(chunks.size())
+                .start();
+        return linked(collection, entities);
+    }
+
+    /**
+     * Maps the future of a budgeted executor to a value, passing the
+     * cancellation of the result back to the executor.
+     */
+    private static <T> CompletableFuture<T> linked(CompletableFuture<Long> upstream, T value) {
+        CompletableFuture<T> result = upstream.thenApply(count -> value);
+        result.whenComplete((done, error) -> {
+            if (result.isCancelled()) {
+                upstream.cancel(false);
+            }
+        });
+        return result;
     }
 
     public Location getCenter() {
@@ -112,6 +224,34 @@ public class Cuboid {
         return new Location(this.world, this.xMax, this.yMax, this.zMax);
     }
 
+    public World getWorld() {
+        return this.world;
+    }
+
+    public int getMinX() {
+        return this.xMin;
+    }
+
+    public int getMaxX() {
+        return this.xMax;
+    }
+
+    public int getMinY() {
+        return this.yMin;
+    }
+
+    public int getMaxY() {
+        return this.yMax;
+    }
+
+    public int getMinZ() {
+        return this.zMin;
+    }
+
+    public int getMaxZ() {
+        return this.zMax;
+    }
+
     public int getXWidth() {
         return this.xMax - this.xMin + 1;
     }
@@ -138,6 +278,12 @@ public class Cuboid {
                 loc.getZ() >= this.zMinCentered - marge && loc.getZ() <= this.zMaxCentered + marge;
     }
 
+    public boolean contains(int x, int y, int z) {
+        return x >= this.xMin && x <= this.xMax &&
+                y >= this.yMin && y <= this.yMax &&
+                z >= this.zMin && z <= this.zMax;
+    }
+
     public boolean contains(int x, int y, int z, String requiredMaterial) {
         if (x < this.xMin || x > this.xMax || y < this.yMin || y > this.yMax || z < this.zMin || z > this.zMax) {
             return false;
@@ -146,7 +292,57 @@ public class Cuboid {
         return block.getType().toString().equalsIgnoreCase(requiredMaterial);
     }
 
+    /**
+     * Collects the entities inside the cuboid. On Folia the chunks must all
+     * be owned by the calling region thread, use {@link #getEntitiesAsync()}
+     * otherwise.
+     *
+     * @return The entities
+     */
     public Set<Entity> getEntities() {
+        long start = ENTITIES_TIMER.start();
+        int token = TickProfiler.enter(Area.REGIONS);
+        try {
+            return collectEntities();
+        } finally {
+            TickProfiler.exit(token);
+            ENTITIES_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Collects the entities inside the cuboid from any thread. Each chunk is
+     * read on the thread that owns it: its region on Folia, the main thread
+     * elsewhere.
+     *
+     * @return A future completed with the entities
+     */
+    public CompletableFuture<Set<Entity>> getEntitiesAsync() {
+        if (world == null) {
+            return CompletableFuture.completedFuture(new HashSet<>());
+        }
+        if (!TaskRouter.isFolia()) {
+            if (Bukkit.isPrimaryThread()) {
+                return CompletableFuture.completedFuture(getEntities());
+            }
+            return CompletableFuture.supplyAsync(this::getEntities,
+                    task -> TaskRouter.execute(JCoreAPI.getPlugin(), task));
+        }
+
+        Set<Entity> entities = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int cx = this.xMin >> 4; cx <= this.xMax >> 4; cx++) {
+            for (int cz = this.zMin >> 4; cz <= this.zMax >> 4; cz++) {
+                int chunkX = cx;
+                int chunkZ = cz;
+                chunks.add(CompletableFuture.runAsync(() -> collectEntities(chunkX, chunkZ, entities),
+                        task -> TaskRouter.execute(JCoreAPI.getPlugin(), world, chunkX, chunkZ, task)));
+            }
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> entities);
+    }
+
+    private Set<Entity> collectEntities() {
         Set<Entity> entities = new HashSet<>();
         int minChunkX = this.xMin >> 4;
         int maxChunkX = this.xMax >> 4;
@@ -155,21 +351,25 @@ public class Cuboid {
 
         for (int cx = minChunkX; cx <= maxChunkX; cx++) {
             for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
-                // Comprobamos que el chunk esté cargado para evitar cargar chunks
-                // innecesariamente.
-                if (world.isChunkLoaded(cx, cz)) {
-                    Chunk chunk = world.getChunkAt(cx, cz);
-                    for (Entity entity : chunk.getEntities()) {
-                        if (this.isIn(entity.getLocation())) {
-                            entities.add(entity);
-                        }
-                    }
-                }
+                collectEntities(cx, cz, entities);
             }
         }
         return entities;
     }
 
+    private void collectEntities(int cx, int cz, Set<Entity> entities) {
+        // Comprobamos que el chunk esté cargado para evitar cargar chunks
+        // innecesariamente.
+        if (world.isChunkLoaded(cx, cz)) {
+            Chunk chunk = world.getChunkAt(cx, cz);
+            for (Entity entity : chunk.getEntities()) {
+                if (this.isIn(entity.getLocation())) {
+                    entities.add(entity);
+                }
+            }
+        }
+    }
+
     public Set<Player> getPlayers() {
         Set<Player> players = new HashSet<>();
         for (Entity entity : getEntities()) {
@@ -200,4 +400,31 @@ public class Cuboid {
         corners.add(new Location(world, xMax, yMax, zMax));
         return corners;
     }
+
+    private final class BlockIterator implements Iterator<Block> {
+        private int x = xMin;
+        private int y = yMin;
+        private int z = zMin;
+
+        @Override
+        public boolean hasNext() {
+            return world != null && x <= xMax && yMin <= yMax && zMin <= zMax;
+        }
+
+        @Override
+        public Block next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Block block = world.getBlockAt(x, y, z);
+            if (++z > zMax) {
+                z = zMin;
+                if (++y > yMax) {
+                    y = yMin;
+                    x++;
+                }
+            }
+            return block;
+        }
+    }
 }
\ No newline at end of file
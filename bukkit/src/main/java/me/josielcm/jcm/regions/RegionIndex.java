@@ -0,0 +1,445 @@
+package me.josielcm.jcm.regions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Spatial index answering "which regions are here" without testing every
+ * region.
+ * <p>
+ * Each region is added to a bucket for every chunk it covers, so a point
+ * lookup reads a single bucket. Regions covering more chunks than the
+ * configured limit would fill too many buckets; they go to a per-world
+ * R-tree instead, which is searched alongside the buckets.
+ * <p>
+ * Reads are lock-free and may run on any thread. Updates are serialized and
+ * copy-on-write: a bucket or tree is rebuilt and swapped in whole, so a
+ * reader never sees a half-updated bucket. A query spanning several chunks
+ * running during an update may see the region in some of them only.
+ *
+ * <pre>
+ * RegionIndex index = new RegionIndex();
+ * index.add(arena);
+ * List&lt;Cuboid&gt; here = index.getRegionsAt(event.getTo());
+ * </pre>
+ *
+ * @author JosielCM
+ */
+public class RegionIndex {
+
+    /** Chunks a region may cover before it goes to the R-tree */
+    public static final int DEFAULT_MAX_BUCKETED_CHUNKS = 256;
+
+    private final int maxBucketedChunks;
+
+    private final Map<UUID, WorldIndex> worlds = new ConcurrentHashMap<>();
+
+    /** Every indexed region, guarded by this index */
+    private final Set<Cuboid> regions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public RegionIndex() {
+        this(DEFAULT_MAX_BUCKETED_CHUNKS);
+    }
+
+    /**
+     * @param maxBucketedChunks Chunks a region may cover before it goes to the
+     *                          R-tree, {@link Integer#MAX_VALUE} to never use it
+     */
+    public RegionIndex(int maxBucketedChunks) {
+        if (maxBucketedChunks < 1) {
+            throw new IllegalArgumentException("The chunk limit must be positive");
+        }
+        this.maxBucketedChunks = maxBucketedChunks;
+    }
+
+    /**
+     * Adds a region to the index.
+     *
+     * @param cuboid The region, with a world
+     * @return false if the region was already indexed
+     */
+    public synchronized boolean add(Cuboid cuboid) {
+        if (cuboid.getWorld() == null) {
+            throw new IllegalArgumentException("The cuboid has no world");
+        }
+        if (!regions.add(cuboid)) {
+            return false;
+        }
+
+        WorldIndex index = worlds.computeIfAbsent(cuboid.getWorld().getUID(), uid -> new WorldIndex());
+        if (isLarge(cuboid)) {
+            index.large.add(cuboid);
+            index.tree = RTree.build(index.large);
+        } else {
+            forEachChunk(cuboid, key -> index.chunks.compute(key, (k, bucket) -> append(bucket, cuboid)));
+        }
+        return true;
+    }
+
+    /**
+     * Removes a region from the index.
+     *
+     * @param cuboid The region
+     * @return false if the region was not indexed
+     */
+    public synchronized boolean remove(Cuboid cuboid) {
+        if (!regions.remove(cuboid)) {
+            return false;
+        }
+
+        WorldIndex index = worlds.get(cuboid.getWorld().getUID());
+        if (isLarge(cuboid)) {
+            index.large.remove(cuboid);
+            index.tree = RTree.build(index.large);
+        } else {
+            forEachChunk(cuboid, key -> index.chunks.computeIfPresent(key, (k, bucket) -> without(bucket, cuboid)));
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        regions.clear();
+        worlds.clear();
+    }
+
+    public synchronized boolean contains(Cuboid cuboid) {
+        return regions.contains(cuboid);
+    }
+
+    public synchronized int size() {
+        return regions.size();
+    }
+
+    /**
+     * Gets every indexed region.
+     *
+     * @return A copy of the regions
+     */
+    public synchronized List<Cuboid> getRegions() {
+        return new ArrayList<>(regions);
+    }
+
+    /**
+     * Gets the regions containing a location, compared by block like
+     * {@link Cuboid#isIn(Location)}.
+     *
+     * @param location The location
+     * @return The regions, empty if none
+     */
+    public List<Cuboid> getRegionsAt(Location location) {
+        return getRegionsAt(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Gets the regions containing a block.
+     *
+     * @return The regions, empty if none
+     */
+    public List<Cuboid> getRegionsAt(World world, int x, int y, int z) {
+        WorldIndex index = world == null ? null : worlds.get(world.getUID());
+        if (index == null) {
+            return List.of();
+        }
+
+        List<Cuboid> found = new ArrayList<>(2);
+        Cuboid[] bucket = index.chunks.get(key(x >> 4, z >> 4));
+        if (bucket != null) {
+            for (Cuboid cuboid : bucket) {
+                if (cuboid.contains(x, y, z)) {
+                    found.add(cuboid);
+                }
+            }
+        }
+        index.tree.search(x, y, z, x, y, z, found::add);
+        return found;
+    }
+
+    /**
+     * Checks whether any region contains a location, without collecting them.
+     *
+     * @param location The location
+     * @return true if at least one region contains it
+     */
+    public boolean isInAny(Location location) {
+        World world = location.getWorld();
+        WorldIndex index = world == null ? null : worlds.get(world.getUID());
+        if (index == null) {
+            return false;
+        }
+
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        Cuboid[] bucket = index.chunks.get(key(x >> 4, z >> 4));
+        if (bucket != null) {
+            for (Cuboid cuboid : bucket) {
+                if (cuboid.contains(x, y, z)) {
+                    return true;
+                }
+            }
+        }
+        return index.tree.intersectsAny(x, y, z, x, y, z);
+    }
+
+    /**
+     * Gets the regions intersecting a box of blocks, bounds included.
+     *
+     * @return The regions, each once
+     */
+    public List<Cuboid> getRegionsIn(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        WorldIndex index = world == null ? null : worlds.get(world.getUID());
+        if (index == null) {
+            return List.of();
+        }
+
+        Set<Cuboid> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        Consumer<Cuboid[]> scan = bucket -> {
+            for (Cuboid cuboid : bucket) {
+                if (intersects(cuboid, minX, minY, minZ, maxX, maxY, maxZ)) {
+                    found.add(cuboid);
+                }
+            }
+        };
+
+        long boxChunks = (long) ((maxX >> 4) - (minX >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1);
+        if (boxChunks > index.chunks.size()) {
+            // Fewer buckets than chunks in the box, reading them all is cheaper
+            index.chunks.values().forEach(scan);
+        } else {
+            for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                    Cuboid[] bucket = index.chunks.get(key(cx, cz));
+                    if (bucket != null) {
+                        scan.accept(bucket);
+                    }
+                }
+            }
+        }
+        index.tree.search(minX, minY, minZ, maxX, maxY, maxZ, found::add);
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Gets the regions intersecting another region, including the region
+     * itself if it is indexed.
+     *
+     * @param cuboid The region
+     * @return The regions, each once
+     */
+    public List<Cuboid> getIntersecting(Cuboid cuboid) {
+        return getRegionsIn(cuboid.getWorld(), cuboid.getMinX(), cuboid.getMinY(), cuboid.getMinZ(),
+                cuboid.getMaxX(), cuboid.getMaxY(), cuboid.getMaxZ());
+    }
+
+    private boolean isLarge(Cuboid cuboid) {
+        long chunks = (long) ((cuboid.getMaxX() >> 4) - (cuboid.getMinX() >> 4) + 1)
+                * ((cuboid.getMaxZ() >> 4) - (cuboid.getMinZ() >> 4) + 1);
+        return chunks > maxBucketedChunks;
+    }
+
+    private static void forEachChunk(Cuboid cuboid, LongConsumer action) {
+        for (int cx = cuboid.getMinX() >> 4; cx <= cuboid.getMaxX() >> 4; cx++) {
+            for (int cz = cuboid.getMinZ() >> 4; cz <= cuboid.getMaxZ() >> 4; cz++) {
+                action.accept(key(cx, cz));
+            }
+        }
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static Cuboid[] append(Cuboid[] bucket, Cuboid cuboid) {
+        if (bucket == null) {
+            return new Cuboid[] { cuboid };
+        }
+        Cuboid[] copy = Arrays.copyOf(bucket, bucket.length + 1);
+        copy[bucket.length] = cuboid;
+        return copy;
+    }
+
+    /**
+     * @return The bucket without the region, or null to drop an emptied bucket
+     */
+    private static Cuboid[] without(Cuboid[] bucket, Cuboid cuboid) {
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i] == cuboid) {
+                if (bucket.length == 1) {
+                    return null;
+                }
+                Cuboid[] copy = new Cuboid[bucket.length - 1];
+                System.arraycopy(bucket, 0, copy, 0, i);
+                System.arraycopy(bucket, i + 1, copy, i, bucket.length - i - 1);
+                return copy;
+            }
+        }
+        return bucket;
+    }
+
+    private static boolean intersects(Cuboid cuboid, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return cuboid.getMaxX() >= minX && cuboid.getMinX() <= maxX &&
+                cuboid.getMaxY() >= minY && cuboid.getMinY() <= maxY &&
+                cuboid.getMaxZ() >= minZ && cuboid.getMinZ() <= maxZ;
+    }
+
+    private static final class WorldIndex {
+        /** Buckets by chunk key, each array replaced whole on update */
+        private final Map<Long, Cuboid[]> chunks = new ConcurrentHashMap<>();
+
+        /** Regions too large for buckets, guarded by the index */
+        private final List<Cuboid> large = new ArrayList<>();
+
+        /** Tree over {@link #large}, rebuilt on update */
+        private volatile RTree tree = RTree.EMPTY;
+    }
+
+    /**
+     * Immutable R-tree, bulk loaded with Sort-Tile-Recursive packing over the
+     * X and Z centers of the regions.
+     */
+    private static final class RTree {
+        private static final int NODE_SIZE = 16;
+
+        private static final RTree EMPTY = new RTree(null);
+
+        private final Node root;
+
+        private RTree(Node root) {
+            this.root = root;
+        }
+
+        static RTree build(List<Cuboid> regions) {
+            if (regions.isEmpty()) {
+                return EMPTY;
+            }
+
+            List<Node> level = new ArrayList<>();
+            for (Cuboid cuboid : regions) {
+                level.add(new Node(cuboid));
+            }
+            while (level.size() > 1) {
+                level = pack(level);
+            }
+            return new RTree(level.get(0));
+        }
+
+        private static List<Node> pack(List<Node> nodes) {
+            int parents = (nodes.size() + NODE_SIZE - 1) / NODE_SIZE;
+            int slices = (int) Math.ceil(Math.sqrt(parents));
+            int sliceSize = slices * NODE_SIZE;
+
+            List<Node> sorted = new ArrayList<>(nodes);
+            sorted.sort(Comparator.comparingLong(node -> (long) node.minX + node.maxX));
+
+            List<Node> packed = new ArrayList<>(parents);
+            for (int from = 0; from < sorted.size(); from += sliceSize) {
+                List<Node> slice = new ArrayList<>(sorted.subList(from, Math.min(sorted.size(), from + sliceSize)));
+                slice.sort(Comparator.comparingLong(node -> (long) node.minZ + node.maxZ));
+                for (int start = 0; start < slice.size(); start += NODE_SIZE) {
+                    packed.add(new Node(slice.subList(start, Math.min(slice.size(), start + NODE_SIZE))));
+                }
+            }
+            return packed;
+        }
+
+        void search(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Consumer<Cuboid> out) {
+            if (root != null) {
+                root.search(minX, minY, minZ, maxX, maxY, maxZ, out);
+            }
+        }
+
+        boolean intersectsAny(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            return root != null && root.intersectsAny(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+    }
+
+    private static final class Node {
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int maxX;
+        private final int maxY;
+        private final int maxZ;
+
+        /** The region of a leaf, null for inner nodes */
+        private final Cuboid cuboid;
+        private final Node[] children;
+
+        Node(Cuboid cuboid) {
+            this.minX = cuboid.getMinX();
+            this.minY = cuboid.getMinY();
+            this.minZ = cuboid.getMinZ();
+            this.maxX = cuboid.getMaxX();
+            this.maxY = cuboid.getMaxY();
+            this.maxZ = cuboid.getMaxZ();
+            this.cuboid = cuboid;
+            this.children = null;
+        }
+
+        Node(List<Node> children) {
+            int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, z0 = Integer.MAX_VALUE;
+            int x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE, z1 = Integer.MIN_VALUE;
+            for (Node child : children) {
+                x0 = Math.min(x0, child.minX);
+                y0 = Math.min(y0, child.minY);
+                z0 = Math.min(z0, child.minZ);
+                x1 = Math.max(x1, child.maxX);
+                y1 = Math.max(y1, child.maxY);
+                z1 = Math.max(z1, child.maxZ);
+            }
+            this.minX = x0;
+            this.minY = y0;
+            this.minZ = z0;
+            this.maxX = x1;
+            this.maxY = y1;
+            this.maxZ = z1;
+            this.cuboid = null;
+            this.children = children.toArray(new Node[0]);
+        }
+
+        private boolean overlaps(int x0, int y0, int z0, int x1, int y1, int z1) {
+            return maxX >= x0 && minX <= x1 && maxY >= y0 && minY <= y1 && maxZ >= z0 && minZ <= z1;
+        }
+
+        void search(int x0, int y0, int z0, int x1, int y1, int z1, Consumer<Cuboid> out) {
+            if (!overlaps(x0, y0, z0, x1, y1, z1)) {
+                return;
+            }
+            if (cuboid != null) {
+                out.accept(cuboid);
+                return;
+            }
+            for (Node child : children) {
+                child.search(x0, y0, z0, x1, y1, z1, out);
+            }
+        }
+
+        boolean intersectsAny(int x0, int y0, int z0, int x1, int y1, int z1) {
+            if (!overlaps(x0, y0, z0, x1, y1, z1)) {
+                return false;
+            }
+            if (cuboid != null) {
+                return true;
+            }
+            for (Node child : children) {
+                if (child.intersectsAny(x0, y0, z0, x1, y1, z1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -8,10 +8,16 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.persistence.PersistentDataContainer;
 
+import me.josielcm.jcm.logger.Log;
+import me.josielcm.jcm.logger.Logger;
+import me.josielcm.jcm.profiler.TickProfiler;
+import me.josielcm.jcm.profiler.TickProfiler.Area;
 import me.josielcm.jcm.utils.Key;
 
 public class SelectorEvents implements Listener {
 
+    private static final Logger LOGGER = Log.of("Selector");
+
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
 
@@ -23,6 +29,16 @@ public class SelectorEvents implements Listener {
         if (event.getClickedBlock() == null) {
             return;
         }
+
+        int token = TickProfiler.enter(Area.SELECTOR);
+        try {
+            handleInteract(event);
+        } finally {
+            TickProfiler.exit(token);
+        }
+    }
+
+    private void handleInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
         ItemStack item = event.getItem();
         PersistentDataContainer container = item.getItemMeta().getPersistentDataContainer();
@@ -30,6 +46,7 @@ public class SelectorEvents implements Listener {
         if (event.getAction() == Action.LEFT_CLICK_BLOCK) {
             if (container.has(Key.selectorKey)) {
                 event.setCancelled(true);
+                LOGGER.debug("{} left clicked {} with the selector", player.getName(), event.getClickedBlock());
 
                 if (player.isSneaking()) {
                     SelectorHandler.handleShiftLeftClick(player, event);
@@ -42,6 +59,7 @@ public class SelectorEvents implements Listener {
         if (event.getAction() == Action.RIGHT_CLICK_BLOCK) {
             if (container.has(Key.selectorKey)) {
                 event.setCancelled(true);
+                LOGGER.debug("{} right clicked {} with the selector", player.getName(), event.getClickedBlock());
                 
                 if (player.isSneaking()) {
                     SelectorHandler.handleShiftRightClick(player, event);
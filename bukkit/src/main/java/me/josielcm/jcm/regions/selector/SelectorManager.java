@@ -1,11 +1,12 @@
 package me.josielcm.jcm.regions.selector;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 import org.bukkit.inventory.ItemStack;
 
 import lombok.Getter;
@@ -21,11 +22,21 @@ public class SelectorManager {
 
     @Getter
     private Map<UUID, ItemStack[]> playerInventories;
+
+    private final SelectorEvents events = new SelectorEvents();
     
     public SelectorManager() {
-        JCoreAPI.getPlugin().getServer().getPluginManager().registerEvents(new SelectorEvents(), JCoreAPI.getPlugin());
-        selectorContainers = new HashMap<>();
-        playerInventories = new HashMap<>();
+        JCoreAPI.getPlugin().getServer().getPluginManager().registerEvents(events, JCoreAPI.getPlugin());
+        // Concurrent, on Folia each player's clicks are handled on their own region thread
+        selectorContainers = new ConcurrentHashMap<>();
+        playerInventories = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Unregisters the interact listener of this manager.
+     */
+    public void shutdown() {
+        HandlerList.unregisterAll(events);
     }
 
     public SelectorContainer getSelectorContainer(UUID uuid) {
@@ -33,12 +44,11 @@ public class SelectorManager {
     }
 
     public void enable(Player player) {
-        if (selectorContainers.containsKey(player.getUniqueId())) {
+        if (selectorContainers.putIfAbsent(player.getUniqueId(), new SelectorContainer(player.getUniqueId())) != null) {
             player.sendMessage(Color.parse("<red>Selector is already enabled.</red>"));
             return;
         }
 
-        selectorContainers.put(player.getUniqueId(), new SelectorContainer(player.getUniqueId()));
         playerInventories.put(player.getUniqueId(), player.getInventory().getContents());
         giveItems(player);
         player.sendMessage(Color.parse("<green>Selector enabled.</green>"));
@@ -46,12 +56,11 @@ public class SelectorManager {
     }
 
     public void disable(Player player) {
-        if (!selectorContainers.containsKey(player.getUniqueId())) {
+        if (selectorContainers.remove(player.getUniqueId()) == null) {
             player.sendMessage(Color.parse("<red>Selector is not enabled.</red>"));
             return;
         }
 
-        selectorContainers.remove(player.getUniqueId());
         player.getInventory().clear();
         player.getInventory().setContents(playerInventories.get(player.getUniqueId()));
         playerInventories.remove(player.getUniqueId());
@@ -0,0 +1,31 @@
+package me.josielcm.jcm.utils;
+
+/**
+ * Immutable snapshot of a cache's counters.
+ *
+ * @param hits Number of lookups served from the cache
+ * @param misses Number of lookups that had to compute the value
+ * @param evictions Number of entries dropped to respect the size bound
+ * @param size Number of entries at the time of the snapshot
+ * @param maximumSize The configured maximum number of entries
+ * @author JosielCM
+ * @since 1.0
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maximumSize) {
+
+    /**
+     * Gets the ratio of hits over all lookups.
+     *
+     * @return The hit rate between 0 and 1, or 0 if there were no lookups
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d evictions=%d size=%d/%d hitRate=%.2f%%",
+                hits, misses, evictions, size, maximumSize, hitRate() * 100);
+    }
+}
@@ -4,7 +4,6 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import lombok.Getter;
-import me.josielcm.jcm.JCoreAPI;
 import me.josielcm.jcm.logger.Log;
 import me.josielcm.jcm.logger.Log.LogLevel;
 
@@ -19,10 +18,7 @@ public class Key {
         }
 
         selectorKey = new NamespacedKey(plugin, "JCoreAPI_SelectorKey");
-
-        if (JCoreAPI.isDebug()) {
-            Log.log(LogLevel.DEBUG, "JCoreAPI namespacedkeys initialized");
-        }
+        Log.log(LogLevel.DEBUG, "JCoreAPI namespacedkeys initialized");
     }
 
 }
@@ -0,0 +1,214 @@
+package me.josielcm.jcm.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A size-bounded, thread-safe LRU cache.
+ * <p>
+ * Entries are spread over independent segments, each one a small access-ordered
+ * {@link LinkedHashMap} guarded by its own lock, so concurrent readers on
+ * different keys rarely contend. Each segment evicts its least recently used
+ * entry once it grows past its share of the maximum size; the shares add up
+ * to the maximum size, and every segment holds at least
+ * {@value #MIN_SEGMENT_SIZE} entries so small caches are not split too thin.
+ * <p>
+ * Values are computed outside the segment lock; two threads missing on the
+ * same key at the same time may both compute it and the last one wins. This is
+ * meant for pure, idempotent loaders such as parsing a string.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class LruCache<K, V> {
+
+    /** Smallest share of the maximum size a segment gets */
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int mask;
+    private final int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maximumSize} entries.
+     *
+     * @param maximumSize The maximum number of entries, must be positive
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public LruCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+
+        int count = Math.min(segmentsFor(Runtime.getRuntime().availableProcessors()),
+                Math.max(1, maximumSize / MIN_SEGMENT_SIZE));
+        count = Integer.highestOneBit(count);
+
+        this.maximumSize = maximumSize;
+        this.mask = count - 1;
+        this.segments = new Segment[count];
+
+        // The remainder goes to the first segments, so the shares add up to maximumSize
+        int perSegment = maximumSize / count;
+        int remainder = maximumSize % count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment + (i < remainder ? 1 : 0), evictions);
+        }
+    }
+
+    /**
+     * Gets the cached value for a key, computing and storing it on a miss.
+     *
+     * @param key The key
+     * @param loader Function that computes the value on a miss, must not return null
+     * @return The cached or computed value
+     */
+    public @NotNull V get(@NotNull K key, @NotNull Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value = segment.get(key);
+
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = loader.apply(key);
+        segment.put(key, value);
+        return value;
+    }
+
+    /**
+     * Gets the cached value for a key without computing it.
+     *
+     * @param key The key
+     * @return The cached value, or null if absent
+     */
+    public @Nullable V getIfPresent(@NotNull K key) {
+        V value = segmentFor(key).get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Stores a value, replacing any previous one.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        segmentFor(key).put(key, value);
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key The key
+     */
+    public void invalidate(@NotNull K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes every entry. Counters are kept.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Gets the current number of entries.
+     *
+     * @return The number of cached entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the configured maximum size.
+     *
+     * @return The maximum number of entries
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Takes a snapshot of the hit, miss and eviction counters.
+     *
+     * @return The cache statistics
+     */
+    public @NotNull CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maximumSize);
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & mask];
+    }
+
+    private static int segmentsFor(int processors) {
+        // Enough segments to spread async callers without splitting small caches too thin
+        return Math.max(1, Math.min(64, processors * 4));
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, V> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            return map.get(key);
+        }
+
+        synchronized void put(K key, V value) {
+            map.put(key, value);
+        }
+
+        synchronized void remove(K key) {
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package me.josielcm.jcm.utils;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -20,12 +26,19 @@ import org.bukkit.potion.PotionEffectType;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
+import me.josielcm.jcm.JCoreAPI;
 import me.josielcm.jcm.formats.Color;
+import me.josielcm.jcm.papi.PAPI;
+import me.josielcm.jcm.scheduler.JCoreScheduler;
+import me.josielcm.jcm.shared.SharedRuntime;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
 import net.kyori.adventure.title.Title.Times;
 
 public final class PlayerUtil {
+
+    /** Parallelism the async render is sliced for */
+    private static final int RENDER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
     
     // Prevent instantiation of utility class
     private PlayerUtil() {
@@ -33,20 +46,130 @@ public final class PlayerUtil {
     }
 
     /**
-     * Send a message to multiple players identified by their UUIDs
+     * Send a message to multiple players identified by their UUIDs.
+     * The message is parsed and serialized once for all of them.
      */
     public static void sendMessage(Collection<UUID> players, String message) {
         if (message == null || message.isEmpty()) return;
         
-        Component parsed = Color.parse(message);
+        PreparedMessage prepared = PreparedMessage.of(Color.parse(message));
         players.forEach(uuid -> {
             Player player = Bukkit.getPlayer(uuid);
             if (player != null && player.isOnline()) {
-                player.sendMessage(parsed);
+                prepared.send(player);
             }
         });
     }
     
+    /**
+     * Render a personalized message for many players off the main thread.
+     * PlaceholderAPI placeholders and MiniMessage are resolved in parallel on the
+     * async lane of {@link JCoreAPI#getScheduler()} (or the shared runtime's pool),
+     * so the message should only use placeholders that are safe to resolve
+     * asynchronously. A message without placeholders is parsed once.
+     * 
+     * @return A future with the rendered component of each player, in iteration order
+     */
+    public static CompletableFuture<List<Component>> renderAsync(Collection<? extends Player> players, String message) {
+        List<Player> targets = List.copyOf(players);
+        if (message == null || message.isEmpty() || targets.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        ExecutorService pool = renderPool();
+        if (message.indexOf('%') < 0) {
+            return CompletableFuture.supplyAsync(() -> Collections.nCopies(targets.size(), Color.parse(message)), pool);
+        }
+
+        // A few slices per thread keeps the pool busy without one task per player
+        Component[] rendered = new Component[targets.size()];
+        int slice = Math.max(1, (targets.size() + RENDER_THREADS * 4 - 1) / (RENDER_THREADS * 4));
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+
+        for (int from = 0; from < rendered.length; from += slice) {
+            int start = from;
+            int end = Math.min(rendered.length, from + slice);
+            slices.add(CompletableFuture.runAsync(() -> {
+                for (int i = start; i < end; i++) {
+                    rendered[i] = Color.parse(PAPI.setPlaceholders(targets.get(i), message));
+                }
+            }, pool));
+        }
+
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new))
+                .thenApply(done -> Arrays.asList(rendered));
+    }
+
+    /**
+     * Send a personalized message to many players, rendering it off the main thread.
+     * The rendered messages are sent back on the main thread in a single task,
+     * skipping players that went offline in the meantime.
+     * 
+     * @see #renderAsync(Collection, String)
+     * @return A future with the number of players the message was sent to
+     */
+    public static CompletableFuture<Integer> sendMessageAsync(Collection<? extends Player> players, String message) {
+        List<Player> targets = List.copyOf(players);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        renderAsync(targets, message).whenComplete((rendered, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                scheduler().runSync(() -> result.complete(dispatch(targets, rendered)));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Send every rendered message to its player, serializing shared components once.
+     * Renders share one component instance across consecutive players when the
+     * message is not personalized; a component used once skips the shared cache.
+     */
+    private static int dispatch(List<Player> targets, List<Component> rendered) {
+        int sent = 0;
+        Component last = null;
+        PreparedMessage prepared = null;
+
+        for (int i = 0; i < rendered.size(); i++) {
+            Player player = targets.get(i);
+            if (!player.isOnline()) continue;
+
+            Component component = rendered.get(i);
+            if (component != last) {
+                last = component;
+                boolean shared = i + 1 < rendered.size() && rendered.get(i + 1) == component;
+                prepared = shared ? PreparedMessage.of(component) : PreparedMessage.uncached(component);
+            }
+            prepared.send(player);
+            sent++;
+        }
+
+        return sent;
+    }
+
+    private static ExecutorService renderPool() {
+        ExecutorService shared = SharedRuntime.getExecutor();
+        if (shared != null) {
+            return shared;
+        }
+        return scheduler().getAsyncExecutor();
+    }
+
+    private static JCoreScheduler scheduler() {
+        JCoreScheduler scheduler = JCoreAPI.getScheduler();
+        if (scheduler == null) {
+            throw new IllegalStateException("JCoreAPI must be initialized before sending messages asynchronously");
+        }
+        return scheduler;
+    }
+    
     /**
      * Send a message to a single player
      */
@@ -0,0 +1,298 @@
+package me.josielcm.jcm.utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import com.destroystokyo.paper.ClientOption;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+
+/**
+ * A chat message serialized to JSON once and sent to many players.
+ * <p>
+ * {@link Player#sendMessage(Component)} hands the component to the network
+ * layer, which serializes it again for every recipient. A prepared message
+ * keeps the JSON form and, on Paper servers whose system chat packet accepts
+ * pre-serialized JSON, writes that packet directly, so a broadcast to 300
+ * players serializes once instead of 300 times. When the packet cannot be
+ * used (other server versions or forks, non-player audiences) the message is
+ * sent through Adventure as usual. So are messages with translatable parts,
+ * which the server renders in the locale of each player, and messages to
+ * players whose chat settings may hide them, which the server filters.
+ * <p>
+ * Messages obtained through {@link #of(Component)} are shared by component
+ * identity: broadcasting the same component instance again reuses the
+ * serialization. Combined with {@code Color.enableCache}, repeated broadcasts
+ * of the same MiniMessage string hit this cache too.
+ *
+ * <pre>
+ * PreparedMessage message = PreparedMessage.of(Color.parse("&lt;gold&gt;Event starting!"));
+ * message.send(Bukkit.getOnlinePlayers());
+ * </pre>
+ *
+ * @author JosielCM
+ * @since 1.0
+ */
+public final class PreparedMessage {
+
+    private static final LruCache<IdentityKey, PreparedMessage> SHARED = new LruCache<>(256);
+
+    private final Component component;
+    private final boolean translatable;
+    private volatile String json;
+
+    private PreparedMessage(Component component) {
+        this.component = component;
+        this.translatable = containsTranslatable(component);
+    }
+
+    /**
+     * Gets the prepared form of a component, reusing a previous one for the
+     * same component instance.
+     *
+     * @param component The message
+     * @return The prepared message
+     */
+    public static @NotNull PreparedMessage of(@NotNull Component component) {
+        return SHARED.get(new IdentityKey(component), key -> new PreparedMessage(key.component()));
+    }
+
+    /**
+     * Gets the prepared form of a component sent only once, without going
+     * through the shared cache, so one-off messages do not evict the shared
+     * ones.
+     *
+     * @param component The message
+     * @return A new prepared message
+     */
+    static @NotNull PreparedMessage uncached(@NotNull Component component) {
+        return new PreparedMessage(component);
+    }
+
+    /**
+     * Gets the message component.
+     *
+     * @return The component
+     */
+    public @NotNull Component getComponent() {
+        return component;
+    }
+
+    /**
+     * Gets the JSON form of the message, serializing it on first use.
+     *
+     * @return The JSON string
+     */
+    public @NotNull String getJson() {
+        String serialized = json;
+        if (serialized == null) {
+            // Serialization is deterministic, a race only serializes twice
+            serialized = GsonComponentSerializer.gson().serialize(component);
+            json = serialized;
+        }
+        return serialized;
+    }
+
+    /**
+     * Sends the message to an audience.
+     *
+     * @param audience The audience, players use the pre-serialized path
+     */
+    public void send(@NotNull Audience audience) {
+        if (audience instanceof Player player && !translatable && acceptsSystemMessages(player)
+                && PacketSender.send(player, getJson())) {
+            return;
+        }
+        audience.sendMessage(component);
+    }
+
+    /**
+     * Sends the message to many audiences.
+     *
+     * @param audiences The audiences
+     */
+    public void send(@NotNull Iterable<? extends Audience> audiences) {
+        for (Audience audience : audiences) {
+            send(audience);
+        }
+    }
+
+    /**
+     * Gets the statistics of the shared message cache.
+     *
+     * @return The cache statistics
+     */
+    public static @NotNull CacheStats getSharedStats() {
+        return SHARED.stats();
+    }
+
+    /**
+     * Drops every shared message.
+     */
+    public static void clearShared() {
+        SHARED.clear();
+    }
+
+    private static boolean acceptsSystemMessages(Player player) {
+        ClientOption.ChatVisibility visibility = player.getClientOption(ClientOption.CHAT_VISIBILITY);
+        return visibility == ClientOption.ChatVisibility.FULL || visibility == ClientOption.ChatVisibility.SYSTEM;
+    }
+
+    private static boolean containsTranslatable(Component component) {
+        if (component instanceof TranslatableComponent) {
+            return true;
+        }
+        HoverEvent<?> hover = component.hoverEvent();
+        if (hover != null && hover.value() instanceof Component text && containsTranslatable(text)) {
+            return true;
+        }
+        for (Component child : component.children()) {
+            if (containsTranslatable(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cache key comparing components by identity rather than by value, so a
+     * lookup never walks a component tree.
+     */
+    private record IdentityKey(Component component) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey other && other.component == component;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(component);
+        }
+    }
+
+    /**
+     * Writes system chat packets carrying pre-serialized JSON.
+     * <p>
+     * Everything is resolved by reflection on the first send and the path is
+     * switched off for good if that fails or the server classes do not
+     * match. A packet that fails to send only falls back for that message.
+     */
+    private static final class PacketSender {
+
+        private static final String PACKET_CLASS = "net.minecraft.network.protocol.game.ClientboundSystemChatPacket";
+
+        private static volatile boolean disabled;
+        private static volatile PacketSender instance;
+
+        private final Method getHandle;
+        private final Field connection;
+        private final Method send;
+        private final Constructor<?> packet;
+
+        private PacketSender(Method getHandle, Field connection, Method send, Constructor<?> packet) {
+            this.getHandle = getHandle;
+            this.connection = connection;
+            this.send = send;
+            this.packet = packet;
+        }
+
+        /**
+         * @return false if the message was not sent and Adventure must be used
+         */
+        static boolean send(Player player, String json) {
+            if (disabled) {
+                return false;
+            }
+
+            try {
+                PacketSender sender = instance;
+                if (sender == null) {
+                    sender = resolve(player);
+                    if (sender == null) {
+                        disabled = true;
+                        return false;
+                    }
+                    instance = sender;
+                }
+
+                Object handle = sender.getHandle.invoke(player);
+                Object listener = sender.connection.get(handle);
+                if (listener == null) {
+                    return false;
+                }
+                sender.send.invoke(listener, sender.packet.newInstance(null, json, false));
+                return true;
+            } catch (InvocationTargetException e) {
+                // The server rejected this packet, the path itself works
+                return false;
+            } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+                disabled = true;
+                return false;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private static @Nullable PacketSender resolve(Player player) throws ReflectiveOperationException {
+            Class<?> packetClass = Class.forName(PACKET_CLASS);
+            Constructor<?> packet = null;
+            for (Constructor<?> constructor : packetClass.getConstructors()) {
+                Class<?>[] types = constructor.getParameterTypes();
+                if (types.length == 3 && types[0] == Component.class && types[1] == String.class && types[2] == boolean.class) {
+                    packet = constructor;
+                    break;
+                }
+            }
+            if (packet == null) {
+                return null;
+            }
+
+            Method getHandle = player.getClass().getMethod("getHandle");
+            Field connection = findConnection(getHandle.getReturnType());
+            if (connection == null) {
+                return null;
+            }
+
+            Method send = null;
+            for (Method method : connection.getType().getMethods()) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1 && types[0].getSimpleName().equals("Packet")
+                        && types[0].isAssignableFrom(packetClass) && !Modifier.isStatic(method.getModifiers())) {
+                    send = method;
+                    break;
+                }
+            }
+            if (send == null) {
+                return null;
+            }
+
+            return new PacketSender(getHandle, connection, send, packet);
+        }
+
+        private static @Nullable Field findConnection(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    String name = field.getType().getSimpleName();
+                    // Mojang and Spigot names of the play packet listener
+                    if (name.equals("ServerGamePacketListenerImpl") || name.equals("PlayerConnection")) {
+                        field.setAccessible(true);
+                        return field;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
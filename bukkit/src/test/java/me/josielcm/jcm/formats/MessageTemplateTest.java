@@ -0,0 +1,81 @@
+package me.josielcm.jcm.formats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+class MessageTemplateTest {
+
+    private static final Map<String, Component> PLAYER = Map.of("%player%", Component.text("Steve"));
+
+    @Test
+    void replacesInContent() {
+        Component parsed = Color.parse("<gold>Hi %player%!", PLAYER);
+
+        assertEquals("Hi Steve!", plain(parsed));
+    }
+
+    @Test
+    void replacesInHoverText() {
+        Component parsed = Color.parse("<hover:show_text:'<red>Profile of %player%'>%player%</hover>", PLAYER);
+
+        assertEquals("Steve", plain(parsed));
+        assertEquals("Profile of Steve", plain(hoverText(parsed)));
+    }
+
+    @Test
+    void replacesInTranslatableArguments() {
+        Component parsed = Color.parse("<lang:chat.type.text:'%player%':'hello'>", PLAYER);
+
+        TranslatableComponent translatable = find(parsed);
+        assertEquals("Steve", plain(translatable.args().get(0)));
+        assertEquals("hello", plain(translatable.args().get(1)));
+    }
+
+    @Test
+    void compiledTemplateListsHoverSlots() {
+        MessageTemplate template = Color.compile("<hover:show_text:'%rank%'>%player%</hover>");
+
+        assertTrue(template.getSlots().contains("%rank%"));
+        assertTrue(template.getSlots().contains("%player%"));
+    }
+
+    private static String plain(Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    private static Component hoverText(Component component) {
+        HoverEvent<?> event = component.hoverEvent();
+        if (event != null) {
+            return (Component) event.value();
+        }
+        for (Component child : component.children()) {
+            Component found = hoverText(child);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static TranslatableComponent find(Component component) {
+        if (component instanceof TranslatableComponent translatable) {
+            return translatable;
+        }
+        for (Component child : component.children()) {
+            TranslatableComponent found = find(child);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+}
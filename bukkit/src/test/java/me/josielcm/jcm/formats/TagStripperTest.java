@@ -0,0 +1,67 @@
+package me.josielcm.jcm.formats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+class TagStripperTest {
+
+    private static final String[] PIECES = {
+            "<red>", "</red>", "<b>", "</b>", "<bold>", "</bold>", "<#ff0000>", "</#ff0000>",
+            "<color:red>", "</color>", "<gradient:red:blue>", "</gradient>", "</gradient:red:blue>",
+            "<rainbow>", "</rainbow>", "<reset>", "<!b>", "</!b>", "<i>", "</italic>",
+            "<font:uniform>", "</font>", "</red:x>", "<>", "</>", "hi", " ", "a < b", ">", "<", "x"
+    };
+
+    @Test
+    void stripsMatchedTags() {
+        assertEquals("hi", TagStripper.strip("<red>hi</red>"));
+        assertEquals("hi there", TagStripper.strip("<red>hi <bold>there</bold></red>"));
+    }
+
+    @Test
+    void leavesUnmatchedClosingTagsToTheParser() {
+        assertNull(TagStripper.strip("</red>"));
+        assertNull(TagStripper.strip("<bold></color>"));
+        assertNull(TagStripper.strip("<red>hi</red></red>"));
+        assertNull(TagStripper.strip("<reset><!b></b>"));
+    }
+
+    @Test
+    void matchesMiniMessage() {
+        String[] cases = {
+                "</red>", "<red>hi</red>", "<bold></color>", "</gradient:red:blue><gradient:red:blue>",
+                "<reset><!b></b>", "<!b>></!b></!b>", "<red><bold>a</red></bold>", "<b>a<reset></b>"
+        };
+        for (String text : cases) {
+            assertMatches(text);
+        }
+    }
+
+    @Test
+    void matchesMiniMessageOnRandomInput() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int pieces = 1 + random.nextInt(8);
+            for (int j = 0; j < pieces; j++) {
+                text.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            assertMatches(text.toString());
+        }
+    }
+
+    private static void assertMatches(String text) {
+        String stripped = TagStripper.strip(text);
+        if (stripped != null) {
+            String parsed = PlainTextComponentSerializer.plainText().serialize(MiniMessage.miniMessage().deserialize(text));
+            assertEquals(parsed, stripped, text);
+        }
+    }
+}
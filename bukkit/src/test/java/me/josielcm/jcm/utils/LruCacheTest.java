@@ -0,0 +1,32 @@
+package me.josielcm.jcm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+    @Test
+    void holdsMaximumSizeWithoutEvicting() {
+        for (int maximumSize : new int[] { 1, 7, 16, 100, 1000, 1023, 4096 }) {
+            LruCache<Integer, Integer> cache = new LruCache<>(maximumSize);
+            for (int i = 0; i < maximumSize; i++) {
+                cache.put(i, i);
+            }
+
+            assertEquals(maximumSize, cache.size(), "size of a cache of " + maximumSize);
+            assertEquals(0, cache.stats().evictions(), "evictions of a cache of " + maximumSize);
+        }
+    }
+
+    @Test
+    void evictsPastMaximumSize() {
+        LruCache<Integer, Integer> cache = new LruCache<>(100);
+        for (int i = 0; i < 150; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(50, cache.stats().evictions());
+    }
+}